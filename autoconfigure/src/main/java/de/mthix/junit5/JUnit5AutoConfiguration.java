@@ -0,0 +1,93 @@
+package de.mthix.junit5;
+
+import de.mthix.junit5.UT03_UseTheRightToolsFor.Actor;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "junit5", name = "enabled", matchIfMissing = true)
+public class JUnit5AutoConfiguration {
+
+  @Bean
+  @Lazy
+  @ConditionalOnMissingBean
+  UT01_StructureAndNamingOf structureAndNamingOf() {
+    return new UT01_StructureAndNamingOf(true);
+  }
+
+  @Bean
+  @Lazy
+  @ConditionalOnMissingBean
+  WeightLevelRegistry weightLevelRegistry() {
+    return new WeightLevelRegistry();
+  }
+
+  @Bean
+  @ConditionalOnBean(Actor.class)
+  @ConditionalOnMissingBean
+  ActorMetrics actorMetrics() {
+    return new ActorMetrics();
+  }
+
+  @Bean
+  @Lazy
+  @ConditionalOnBean(Actor.class)
+  @ConditionalOnMissingBean
+  UT03_UseTheRightToolsFor useTheRightToolsFor(Actor actor, ActorMetrics actorMetrics) {
+    UT03_UseTheRightToolsFor useTheRightToolsFor = new UT03_UseTheRightToolsFor(actor);
+    useTheRightToolsFor.setMetrics(actorMetrics);
+    return useTheRightToolsFor;
+  }
+
+  @Configuration(proxyBeanMethods = false)
+  @ConditionalOnClass(MeterRegistry.class)
+  static class ActorMetricsBinderConfiguration {
+
+    @Bean
+    @ConditionalOnBean(Actor.class)
+    MeterBinder actorMetricsBinder(ActorMetrics actorMetrics) {
+      return registry -> {
+        FunctionCounter.builder("junit5.act.calls", actorMetrics, ActorMetrics::getCalls)
+            .description("Invocations of Actor.doSomething() through act()")
+            .register(registry);
+        FunctionCounter.builder("junit5.act.failures", actorMetrics, ActorMetrics::getFailures)
+            .description("Failed invocations of Actor.doSomething() through act()")
+            .register(registry);
+        registerPercentile(registry, actorMetrics, "0.5", 50);
+        registerPercentile(registry, actorMetrics, "0.99", 99);
+        registerPercentile(registry, actorMetrics, "0.999", 99.9);
+      };
+    }
+
+    private static void registerPercentile(MeterRegistry registry, ActorMetrics actorMetrics, String tag, double percentile) {
+      TimeGauge.builder("junit5.act.latency", actorMetrics, TimeUnit.NANOSECONDS, metrics -> metrics.getLatency().getValueAtPercentile(percentile))
+          .description("Latency of Actor.doSomething() through act()")
+          .tag("percentile", tag)
+          .register(registry);
+    }
+  }
+
+  @Configuration(proxyBeanMethods = false)
+  @ConditionalOnProperty(prefix = "junit5.load", name = "enabled")
+  @EnableConfigurationProperties(LoadDriverProperties.class)
+  static class LoadDriverConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    LoadDriver loadDriver(LoadDriverProperties properties) {
+      return new LoadDriver(properties);
+    }
+  }
+}
@@ -0,0 +1,302 @@
+package de.mthix.junit5;
+
+import de.mthix.junit5.UT03_UseTheRightToolsFor.Actor;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.boot.CommandLineRunner;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+public class LoadDriver implements CommandLineRunner {
+
+  private static final Log LOG = LogFactory.getLog(LoadDriver.class);
+
+  private static final String[] SIZE_CODES = {"s", "m", "l"};
+
+  private final LoadDriverProperties properties;
+
+  public LoadDriver(LoadDriverProperties properties) {
+    if (properties.getRate() < 1 || properties.getRate() > SECONDS.toNanos(1)) {
+      throw new IllegalArgumentException("Wrong rate: " + properties.getRate());
+    }
+    if (properties.getThreads() < 1) {
+      throw new IllegalArgumentException("Wrong thread count: " + properties.getThreads());
+    }
+    if (properties.getActors() < 1) {
+      throw new IllegalArgumentException("Wrong actor count: " + properties.getActors());
+    }
+    LoadDriverProperties.Mix mix = properties.getMix();
+    if (mix.getAct() < 0 || mix.getCalculateWeightLevel() < 0 || mix.getConvertSizeCode() < 0
+        || mix.getAct() + mix.getCalculateWeightLevel() + mix.getConvertSizeCode() == 0) {
+      throw new IllegalArgumentException("Wrong mix: " + mix.getAct() + "/" + mix.getCalculateWeightLevel() + "/" + mix.getConvertSizeCode());
+    }
+    this.properties = properties;
+  }
+
+  @Override
+  public void run(String... args) throws InterruptedException {
+    Summary summary = drive();
+    LOG.info("Finished: " + summary);
+  }
+
+  public Summary drive() throws InterruptedException {
+    List<Actor> actors = new ArrayList<>();
+    for (int i = 0; i < properties.getActors(); i++) {
+      actors.add(new FakeActor(properties.getLatency()));
+    }
+    Run run = new Run(UT03_UseTheRightToolsFor.pooled(actors, ActorPool.roundRobin()));
+    ExecutorService workers = newWorkers();
+    ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+    long reportNanos = properties.getReportInterval().toNanos();
+    long start = System.nanoTime();
+    long end = start + properties.getDuration().toNanos();
+    reporter.scheduleAtFixedRate(() -> run.report(System.nanoTime() - start), reportNanos, reportNanos, NANOSECONDS);
+    try {
+      for (long i = 0; ; i++) {
+        long intended = start + i * SECONDS.toNanos(1) / properties.getRate();
+        if (intended - end >= 0) {
+          break;
+        }
+        for (long now = System.nanoTime(); intended - now > 0; now = System.nanoTime()) {
+          LockSupport.parkNanos(intended - now);
+        }
+        run.issued.incrementAndGet();
+        workers.execute(() -> run.execute(intended));
+      }
+      workers.shutdown();
+      workers.awaitTermination(properties.getDuration().toNanos() + SECONDS.toNanos(30), NANOSECONDS);
+    } finally {
+      workers.shutdownNow();
+      reporter.shutdownNow();
+    }
+    run.report(System.nanoTime() - start);
+    return run.summarize(System.nanoTime() - start);
+  }
+
+  private ExecutorService newWorkers() {
+    if (properties.isVirtualThreads()) {
+      ExecutorService virtualThreads = BoundedExecutor.newVirtualThreadPerTaskExecutor();
+      if (virtualThreads != null) {
+        return virtualThreads;
+      }
+      LOG.warn("Virtual threads not supported, falling back to " + properties.getThreads() + " platform threads");
+    }
+    return Executors.newFixedThreadPool(properties.getThreads());
+  }
+
+  private class Run {
+
+    private final UT03_UseTheRightToolsFor          ut03;
+    private final AtomicLong                        issued         = new AtomicLong();
+    private final LongAdder                         completed      = new LongAdder();
+    private final LongAdder                         failures       = new LongAdder();
+    private final LatencyHistogram                  correctedTotal = new LatencyHistogram();
+    private final LatencyHistogram                  serviceTotal   = new LatencyHistogram();
+    private final AtomicReference<LatencyHistogram> corrected      = new AtomicReference<>(new LatencyHistogram());
+    private final AtomicLong                        intervalCount  = new AtomicLong();
+    private final List<Interval>                    intervals      = new ArrayList<>();
+    private long                                    lastReportNanos;
+
+    Run(UT03_UseTheRightToolsFor ut03) {
+      this.ut03 = ut03;
+    }
+
+    void execute(long intended) {
+      long started = System.nanoTime();
+      try {
+        operation(ThreadLocalRandom.current());
+      } catch (RuntimeException e) {
+        failures.increment();
+      }
+      long finished = System.nanoTime();
+      correctedTotal.record(finished - intended);
+      serviceTotal.record(finished - started);
+      corrected.get().record(finished - intended);
+      completed.increment();
+      intervalCount.incrementAndGet();
+    }
+
+    private void operation(Random random) {
+      LoadDriverProperties.Mix mix = properties.getMix();
+      boolean invalid = random.nextInt(100) < properties.getInvalidPercent();
+      int pick = random.nextInt(mix.getAct() + mix.getCalculateWeightLevel() + mix.getConvertSizeCode());
+      if (pick < mix.getAct()) {
+        ut03.act();
+      } else if (pick < mix.getAct() + mix.getCalculateWeightLevel()) {
+        UT02_WhatTo.calculateWeightLevel(invalid ? -1 - random.nextInt(100) : random.nextInt(200));
+      } else {
+        UT03_UseTheRightToolsFor.convertSizeCode(invalid ? "x" : SIZE_CODES[random.nextInt(SIZE_CODES.length)]);
+      }
+    }
+
+    synchronized void report(long elapsedNanos) {
+      LatencyHistogram.Snapshot snapshot = corrected.getAndSet(new LatencyHistogram()).snapshot();
+      long count = intervalCount.getAndSet(0);
+      long windowNanos = Math.max(1, elapsedNanos - lastReportNanos);
+      lastReportNanos = elapsedNanos;
+      Interval interval = new Interval(Duration.ofNanos(elapsedNanos), count, count * 1e9 / windowNanos, snapshot);
+      intervals.add(interval);
+      LOG.info(interval);
+    }
+
+    synchronized Summary summarize(long elapsedNanos) {
+      return new Summary(issued.get(), completed.sum(), failures.sum(), Duration.ofNanos(elapsedNanos), correctedTotal.snapshot(),
+          serviceTotal.snapshot(), new ArrayList<>(intervals));
+    }
+  }
+
+  public static class Interval {
+
+    private final Duration                  elapsed;
+    private final long                      completed;
+    private final double                    throughput;
+    private final LatencyHistogram.Snapshot latency;
+
+    Interval(Duration elapsed, long completed, double throughput, LatencyHistogram.Snapshot latency) {
+      this.elapsed = elapsed;
+      this.completed = completed;
+      this.throughput = throughput;
+      this.latency = latency;
+    }
+
+    public Duration getElapsed() {
+      return elapsed;
+    }
+
+    public long getCompleted() {
+      return completed;
+    }
+
+    public double getThroughput() {
+      return throughput;
+    }
+
+    public LatencyHistogram.Snapshot getLatency() {
+      return latency;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("t=%ds completed=%d throughput=%.1f/s %s", elapsed.toSeconds(), completed, throughput, percentiles(latency));
+    }
+  }
+
+  public static class Summary {
+
+    private final long                      issued;
+    private final long                      completed;
+    private final long                      failures;
+    private final Duration                  elapsed;
+    private final LatencyHistogram.Snapshot latency;
+    private final LatencyHistogram.Snapshot serviceTime;
+    private final List<Interval>            intervals;
+
+    Summary(long issued, long completed, long failures, Duration elapsed, LatencyHistogram.Snapshot latency, LatencyHistogram.Snapshot serviceTime,
+            List<Interval> intervals) {
+      this.issued = issued;
+      this.completed = completed;
+      this.failures = failures;
+      this.elapsed = elapsed;
+      this.latency = latency;
+      this.serviceTime = serviceTime;
+      this.intervals = intervals;
+    }
+
+    public long getIssued() {
+      return issued;
+    }
+
+    public long getCompleted() {
+      return completed;
+    }
+
+    public long getFailures() {
+      return failures;
+    }
+
+    public double getThroughput() {
+      return completed * 1e9 / Math.max(1, elapsed.toNanos());
+    }
+
+    public LatencyHistogram.Snapshot getLatency() {
+      return latency;
+    }
+
+    public LatencyHistogram.Snapshot getServiceTime() {
+      return serviceTime;
+    }
+
+    public List<Interval> getIntervals() {
+      return intervals;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("issued=%d completed=%d failures=%d throughput=%.1f/s latency[%s] serviceTime[%s]", issued, completed, failures,
+          getThroughput(), percentiles(latency), percentiles(serviceTime));
+    }
+  }
+
+  private static String percentiles(LatencyHistogram.Snapshot snapshot) {
+    return String.format("p50=%.3fms p99=%.3fms p999=%.3fms max=%.3fms", snapshot.getP50() / 1e6, snapshot.getP99() / 1e6, snapshot.getP999() / 1e6,
+        snapshot.getMax() / 1e6);
+  }
+
+  static class FakeActor implements Actor {
+
+    private final LoadDriverProperties.Latency latency;
+    private final AtomicLong                   calls = new AtomicLong();
+
+    FakeActor(LoadDriverProperties.Latency latency) {
+      this.latency = latency;
+    }
+
+    @Override
+    public Integer doSomething() {
+      long nanos = sampleNanos(latency, ThreadLocalRandom.current());
+      long deadline = System.nanoTime() + nanos;
+      for (long remaining = nanos; remaining > 0; remaining = deadline - System.nanoTime()) {
+        LockSupport.parkNanos(remaining);
+      }
+      return (int) calls.incrementAndGet();
+    }
+
+    @Override
+    public void doSomethingElse() {
+    }
+
+    @Override
+    public Integer getStatus() {
+      return (int) calls.get();
+    }
+
+    static long sampleNanos(LoadDriverProperties.Latency latency, Random random) {
+      if (random.nextDouble() < latency.getStallProbability()) {
+        return latency.getStall().toNanos();
+      }
+      long mean = latency.getMean().toNanos();
+      switch (latency.getDistribution()) {
+        case UNIFORM:
+          return (long) (random.nextDouble() * 2 * mean);
+        case EXPONENTIAL:
+          return (long) (-Math.log(1 - random.nextDouble()) * mean);
+        default:
+          return mean;
+      }
+    }
+  }
+}
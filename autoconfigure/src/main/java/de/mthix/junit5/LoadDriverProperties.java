@@ -0,0 +1,170 @@
+package de.mthix.junit5;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "junit5.load")
+public class LoadDriverProperties {
+
+  public enum Distribution {
+    FIXED,
+    UNIFORM,
+    EXPONENTIAL
+  }
+
+  private boolean  enabled;
+  private int      rate           = 1000;
+  private Duration duration       = Duration.ofSeconds(60);
+  private Duration reportInterval = Duration.ofSeconds(5);
+  private int      threads        = 16;
+  private boolean  virtualThreads;
+  private int      actors         = 4;
+  private int      invalidPercent;
+
+  private final Mix     mix     = new Mix();
+  private final Latency latency = new Latency();
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public int getRate() {
+    return rate;
+  }
+
+  public void setRate(int rate) {
+    this.rate = rate;
+  }
+
+  public Duration getDuration() {
+    return duration;
+  }
+
+  public void setDuration(Duration duration) {
+    this.duration = duration;
+  }
+
+  public Duration getReportInterval() {
+    return reportInterval;
+  }
+
+  public void setReportInterval(Duration reportInterval) {
+    this.reportInterval = reportInterval;
+  }
+
+  public int getThreads() {
+    return threads;
+  }
+
+  public void setThreads(int threads) {
+    this.threads = threads;
+  }
+
+  public boolean isVirtualThreads() {
+    return virtualThreads;
+  }
+
+  public void setVirtualThreads(boolean virtualThreads) {
+    this.virtualThreads = virtualThreads;
+  }
+
+  public int getActors() {
+    return actors;
+  }
+
+  public void setActors(int actors) {
+    this.actors = actors;
+  }
+
+  public int getInvalidPercent() {
+    return invalidPercent;
+  }
+
+  public void setInvalidPercent(int invalidPercent) {
+    this.invalidPercent = invalidPercent;
+  }
+
+  public Mix getMix() {
+    return mix;
+  }
+
+  public Latency getLatency() {
+    return latency;
+  }
+
+  public static class Mix {
+
+    private int act                  = 8;
+    private int calculateWeightLevel = 1;
+    private int convertSizeCode      = 1;
+
+    public int getAct() {
+      return act;
+    }
+
+    public void setAct(int act) {
+      this.act = act;
+    }
+
+    public int getCalculateWeightLevel() {
+      return calculateWeightLevel;
+    }
+
+    public void setCalculateWeightLevel(int calculateWeightLevel) {
+      this.calculateWeightLevel = calculateWeightLevel;
+    }
+
+    public int getConvertSizeCode() {
+      return convertSizeCode;
+    }
+
+    public void setConvertSizeCode(int convertSizeCode) {
+      this.convertSizeCode = convertSizeCode;
+    }
+  }
+
+  public static class Latency {
+
+    private Distribution distribution     = Distribution.EXPONENTIAL;
+    private Duration     mean             = Duration.ofMillis(1);
+    private double       stallProbability = 0.001;
+    private Duration     stall            = Duration.ofMillis(100);
+
+    public Distribution getDistribution() {
+      return distribution;
+    }
+
+    public void setDistribution(Distribution distribution) {
+      this.distribution = distribution;
+    }
+
+    public Duration getMean() {
+      return mean;
+    }
+
+    public void setMean(Duration mean) {
+      this.mean = mean;
+    }
+
+    public double getStallProbability() {
+      return stallProbability;
+    }
+
+    public void setStallProbability(double stallProbability) {
+      this.stallProbability = stallProbability;
+    }
+
+    public Duration getStall() {
+      return stall;
+    }
+
+    public void setStall(Duration stall) {
+      this.stall = stall;
+    }
+  }
+}
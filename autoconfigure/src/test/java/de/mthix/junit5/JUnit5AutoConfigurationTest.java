@@ -0,0 +1,120 @@
+package de.mthix.junit5;
+
+import de.mthix.junit5.UT03_UseTheRightToolsFor.Actor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * <h2>Component integration tests for auto-configuration</h2>
+ *
+ * <h3>Use an {@link ApplicationContextRunner} instead of a full Spring Boot test</h3>
+ * <p><strong>What</strong>: test auto-configuration by starting a minimal context with only the configuration under test.</p>
+ * <p><strong>Why</strong>: each test starts in milliseconds and can vary beans and properties independently.</p>
+ * <p><strong>Example</strong>: {@link JUnit5AutoConfigurationTest}</p>
+ * <br>
+ */
+public class JUnit5AutoConfigurationTest {
+
+  private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+      .withConfiguration(AutoConfigurations.of(JUnit5AutoConfiguration.class));
+
+  @Nested
+  class Defaults {
+
+    @Test
+    void structureAndNamingOf() {
+      contextRunner.run(context -> assertThat(context).hasSingleBean(UT01_StructureAndNamingOf.class));
+    }
+
+    @Test
+    void threadSafe() {
+      contextRunner.run(context -> assertThat(context.getBean(UT01_StructureAndNamingOf.class).isThreadSafe()).isTrue());
+    }
+
+    @Test
+    void weightLevelRegistry() {
+      contextRunner.run(context -> assertThat(context).hasSingleBean(WeightLevelRegistry.class));
+    }
+
+    @Test
+    void noUseTheRightToolsForWithoutActor() {
+      contextRunner.run(context -> assertThat(context).doesNotHaveBean(UT03_UseTheRightToolsFor.class));
+    }
+  }
+
+  @Nested
+  class WithActor {
+
+    private ApplicationContextRunner actorContextRunner;
+
+    @BeforeEach
+    void initActor() {
+      actorContextRunner = contextRunner.withBean(Actor.class, () -> mock(Actor.class));
+    }
+
+    @Test
+    void useTheRightToolsFor() {
+      actorContextRunner.run(context -> assertThat(context).hasSingleBean(UT03_UseTheRightToolsFor.class));
+    }
+
+    @Test
+    void instrumented() {
+      actorContextRunner.run(context -> assertThat(context.getBean(UT03_UseTheRightToolsFor.class).getMetrics()).isSameAs(context.getBean(ActorMetrics.class)));
+    }
+
+    @Test
+    void boundToMeterRegistry() {
+      actorContextRunner.run(context -> {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        context.getBean(MeterBinder.class).bindTo(registry);
+
+        assertThat(registry.get("junit5.act.latency").tag("percentile", "0.99").timeGauge()).isNotNull();
+      });
+    }
+  }
+
+  @Test
+  void backsOffFromUserBean() {
+    UT01_StructureAndNamingOf own = new UT01_StructureAndNamingOf();
+
+    contextRunner.withBean(UT01_StructureAndNamingOf.class, () -> own)
+        .run(context -> assertThat(context.getBean(UT01_StructureAndNamingOf.class)).isSameAs(own));
+  }
+
+  @Nested
+  class Load {
+
+    @Test
+    void notRegisteredByDefault() {
+      contextRunner.run(context -> assertThat(context).doesNotHaveBean(LoadDriver.class));
+    }
+
+    @Test
+    void registeredWhenEnabled() {
+      contextRunner.withPropertyValues("junit5.load.enabled=true")
+          .run(context -> assertThat(context).hasSingleBean(LoadDriver.class));
+    }
+
+    @Test
+    void bound() {
+      contextRunner.withPropertyValues("junit5.load.enabled=true", "junit5.load.rate=250", "junit5.load.latency.distribution=uniform")
+          .run(context -> assertThat(context.getBean(LoadDriverProperties.class).getLatency().getDistribution())
+              .isEqualTo(LoadDriverProperties.Distribution.UNIFORM));
+    }
+  }
+
+  @Test
+  void disabled() {
+    contextRunner.withPropertyValues("junit5.enabled=false")
+        .run(context -> assertThat(context).doesNotHaveBean(UT01_StructureAndNamingOf.class));
+  }
+}
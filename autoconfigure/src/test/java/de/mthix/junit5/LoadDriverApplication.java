@@ -0,0 +1,21 @@
+package de.mthix.junit5;
+
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+@SpringBootConfiguration
+@EnableAutoConfiguration
+public class LoadDriverApplication {
+
+  public static void main(String[] args) {
+    new SpringApplicationBuilder(LoadDriverApplication.class)
+        .web(WebApplicationType.NONE)
+        .bannerMode(Banner.Mode.OFF)
+        .properties("junit5.load.enabled=true")
+        .run(args)
+        .close();
+  }
+}
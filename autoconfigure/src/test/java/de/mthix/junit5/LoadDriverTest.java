@@ -0,0 +1,151 @@
+package de.mthix.junit5;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class LoadDriverTest {
+
+  private LoadDriverProperties properties;
+
+  @BeforeEach
+  void initProperties() {
+    properties = new LoadDriverProperties();
+    properties.setRate(2000);
+    properties.setDuration(Duration.ofMillis(300));
+    properties.setReportInterval(Duration.ofMillis(100));
+    properties.getLatency().setDistribution(LoadDriverProperties.Distribution.FIXED);
+    properties.getLatency().setMean(Duration.ZERO);
+    properties.getLatency().setStallProbability(0);
+  }
+
+  @Test
+  void invalidRate() {
+    properties.setRate(0);
+
+    assertThatThrownBy(() -> new LoadDriver(properties)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void invalidMix() {
+    properties.getMix().setAct(0);
+    properties.getMix().setCalculateWeightLevel(0);
+    properties.getMix().setConvertSizeCode(0);
+
+    assertThatThrownBy(() -> new LoadDriver(properties)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Nested
+  class OpenLoop {
+
+    private LoadDriver.Summary summary;
+
+    @BeforeEach
+    void drive() throws InterruptedException {
+      summary = new LoadDriver(properties).drive();
+    }
+
+    @Test
+    void issuedAtRate() {
+      assertThat(summary.getIssued()).isEqualTo(600);
+    }
+
+    @Test
+    void allCompleted() {
+      assertThat(summary.getCompleted()).isEqualTo(summary.getIssued());
+    }
+
+    @Test
+    void noFailures() {
+      assertThat(summary.getFailures()).isZero();
+    }
+
+    @Test
+    void reportedOverTime() {
+      assertThat(summary.getIntervals()).hasSizeGreaterThanOrEqualTo(3);
+    }
+  }
+
+  @Nested
+  class CoordinatedOmission {
+
+    private LoadDriver.Summary summary;
+
+    @BeforeEach
+    void overload() throws InterruptedException {
+      properties.setRate(200);
+      properties.setDuration(Duration.ofMillis(500));
+      properties.setThreads(1);
+      properties.setActors(1);
+      properties.getMix().setCalculateWeightLevel(0);
+      properties.getMix().setConvertSizeCode(0);
+      properties.getLatency().setMean(Duration.ofMillis(10));
+
+      summary = new LoadDriver(properties).drive();
+    }
+
+    @Test
+    void serviceTimeLooksFine() {
+      assertThat(summary.getServiceTime().getP99()).isLessThan(Duration.ofMillis(100).toNanos());
+    }
+
+    @Test
+    void correctedLatencyIncludesQueueing() {
+      assertThat(summary.getLatency().getP99()).isGreaterThan(Duration.ofMillis(300).toNanos());
+    }
+  }
+
+  @Test
+  void invalidInputCountedAsFailure() throws InterruptedException {
+    properties.setInvalidPercent(100);
+    properties.getMix().setAct(0);
+
+    LoadDriver.Summary summary = new LoadDriver(properties).drive();
+
+    assertThat(summary.getFailures()).isEqualTo(summary.getCompleted());
+  }
+
+  @Nested
+  class FakeActorLatency {
+
+    private final LoadDriverProperties.Latency latency = new LoadDriverProperties.Latency();
+    private final Random                       random  = new Random(42);
+
+    @BeforeEach
+    void noStalls() {
+      latency.setStallProbability(0);
+      latency.setMean(Duration.ofMillis(2));
+    }
+
+    @Test
+    void fixed() {
+      latency.setDistribution(LoadDriverProperties.Distribution.FIXED);
+
+      assertThat(LoadDriver.FakeActor.sampleNanos(latency, random)).isEqualTo(2_000_000);
+    }
+
+    @Test
+    void exponentialMean() {
+      latency.setDistribution(LoadDriverProperties.Distribution.EXPONENTIAL);
+      double sum = 0;
+      for (int i = 0; i < 100_000; i++) {
+        sum += LoadDriver.FakeActor.sampleNanos(latency, random);
+      }
+
+      assertThat(sum / 100_000).isBetween(1.9e6, 2.1e6);
+    }
+
+    @Test
+    void stalled() {
+      latency.setStallProbability(1);
+
+      assertThat(LoadDriver.FakeActor.sampleNanos(latency, random)).isEqualTo(latency.getStall().toNanos());
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package de.mthix.junit5;
+
+import de.mthix.junit5.UT03_UseTheRightToolsFor.Actor;
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+
+import java.lang.management.ManagementFactory;
+
+public class StartupComparison {
+
+  public static void main(String[] args) {
+    String mode = args.length > 0 ? args[0] : "core";
+    int result;
+    if ("spring".equals(mode)) {
+      try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+          .web(WebApplicationType.NONE)
+          .bannerMode(Banner.Mode.OFF)
+          .logStartupInfo(false)
+          .run()) {
+        result = work(context.getBean(UT01_StructureAndNamingOf.class), context.getBean(UT03_UseTheRightToolsFor.class));
+      }
+    } else {
+      result = work(new UT01_StructureAndNamingOf(true), new UT03_UseTheRightToolsFor(new ConstantActor()));
+    }
+    System.out.printf("%-6s uptime=%5d ms  loadedClasses=%5d  result=%d%n",
+        mode,
+        ManagementFactory.getRuntimeMXBean().getUptime(),
+        ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount(),
+        result);
+  }
+
+  private static int work(UT01_StructureAndNamingOf ut01, UT03_UseTheRightToolsFor ut03) {
+    ut01.increaseComplexity();
+    return ut01.getComplexity()
+        + UT02_WhatTo.calculateWeightLevel(54).ordinal()
+        + UT03_UseTheRightToolsFor.convertSizeCode("l").ordinal()
+        + ut03.act();
+  }
+
+  @SpringBootConfiguration
+  @EnableAutoConfiguration
+  static class Application {
+
+    @Bean
+    Actor actor() {
+      return new ConstantActor();
+    }
+  }
+
+  private static class ConstantActor implements Actor {
+
+    @Override
+    public Integer doSomething() {
+      return 1;
+    }
+
+    @Override
+    public void doSomethingElse() {
+    }
+
+    @Override
+    public Integer getStatus() {
+      return 0;
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package de.mthix.junit5;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class IntIntIndexBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class Lookups {
+
+    @Param({"1024", "1048576"})
+    int size;
+
+    IntIntIndex               index;
+    Map<Integer, UT02_WhatTo> map;
+    int[]                     probes;
+
+    @Setup
+    public void initLookups() {
+      Random random = new Random(42);
+      int[] keys = random.ints(size).toArray();
+      index = new IntIntIndex(size);
+      map = new HashMap<>();
+      for (int i = 0; i < size; i++) {
+        index.put(keys[i], i);
+        map.put(keys[i], new UT02_WhatTo(keys[i], i));
+      }
+      probes = new int[1024];
+      for (int i = 0; i < probes.length; i++) {
+        probes[i] = random.nextBoolean() ? keys[random.nextInt(size)] : random.nextInt();
+      }
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void get(Lookups lookups, Blackhole blackhole) {
+    for (int probe : lookups.probes) {
+      blackhole.consume(lookups.index.get(probe, -1));
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void hashMapGet(Lookups lookups, Blackhole blackhole) {
+    for (int probe : lookups.probes) {
+      blackhole.consume(lookups.map.get(probe));
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package de.mthix.junit5;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+public class LevelTransitionRingBenchmark {
+
+  @State(Scope.Thread)
+  public static class Record {
+
+    @Param({"NONE", "SINGLE", "MULTI"})
+    String ring;
+
+    UT02_WhatTo         record;
+    LevelTransitionRing transitions;
+    int                 value;
+
+    @Setup
+    public void initRecord() {
+      record = new UT02_WhatTo(7, 54);
+      if (!ring.equals("NONE")) {
+        transitions = new LevelTransitionRing(1 << 16, LevelTransitionRing.ProducerType.valueOf(ring), LevelTransitionRing.busySpin());
+        transitions.register(record);
+      }
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public int setValueSameLevel(Record record) {
+    record.value = record.value == 60 ? 61 : 60;
+    record.record.setValue(record.value);
+    return record.value;
+  }
+
+  @Benchmark
+  @Threads(1)
+  public int setValueLevelChanged(Record record) {
+    record.value = record.value == 120 ? 5 : 120;
+    record.record.setValue(record.value);
+    if (record.transitions != null) {
+      record.transitions.drain((key, from, to, sequence, endOfBatch) -> {
+      }, 1);
+    }
+    return record.value;
+  }
+}
@@ -0,0 +1,78 @@
+package de.mthix.junit5;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+public class TierClassifierBenchmark {
+
+  @State(Scope.Thread)
+  public static class Weights {
+
+    @Param({"3", "32"})
+    int tiers;
+
+    @Param({"true", "false"})
+    boolean dense;
+
+    int[]                weights;
+    TierClassifier.Table table;
+
+    @Setup
+    public void initWeights() {
+      int[] thresholds = tiers == 3 ? TierClassifier.WEIGHT_LEVELS.getThresholds() : IntStream.range(1, tiers).map(i -> i * 100).toArray();
+      table = new TierClassifier.Table(0, thresholds, dense);
+      int max = thresholds[thresholds.length - 1] * 2;
+      Random random = new Random(42);
+      weights = new int[1 << 16];
+      for (int i = 0; i < weights.length; i++) {
+        weights[i] = random.nextInt(max + 10) - 10;
+      }
+    }
+  }
+
+  @Benchmark
+  public int ifElseChain(Weights weights) {
+    int sum = 0;
+    for (int weight : weights.weights) {
+      sum += ifElse(weight);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public int branchFreeOrdinal(Weights weights) {
+    int sum = 0;
+    for (int weight : weights.weights) {
+      sum += UT02_WhatTo.weightLevelOrdinal(weight);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public int tierClassifier(Weights weights) {
+    TierClassifier.Table table = weights.table;
+    int sum = 0;
+    for (int weight : weights.weights) {
+      sum += table.classify(weight);
+    }
+    return sum;
+  }
+
+  private static int ifElse(int weight) {
+    if (weight < 0) {
+      return -1;
+    } else if (weight > 100) {
+      return 2;
+    } else if (weight > 10) {
+      return 1;
+    } else {
+      return 0;
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package de.mthix.junit5;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+public class UT01_StructureAndNamingOfBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class Shared {
+
+    @Param({"false", "true"})
+    boolean threadSafe;
+
+    UT01_StructureAndNamingOf ut01;
+
+    @Setup
+    public void initUT01() {
+      ut01 = new UT01_StructureAndNamingOf(threadSafe);
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void increaseComplexity(Shared shared) {
+    shared.ut01.increaseComplexity();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public void increaseComplexityMultiThreaded(Shared shared) {
+    shared.ut01.increaseComplexity();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public int getComplexityMultiThreaded(Shared shared) {
+    shared.ut01.increaseComplexity();
+    return shared.ut01.getComplexity();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public int getApproximateComplexityMultiThreaded(Shared shared) {
+    shared.ut01.increaseComplexity();
+    return shared.ut01.getApproximateComplexity();
+  }
+}
@@ -0,0 +1,121 @@
+package de.mthix.junit5;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+
+public class UT02_WhatToBenchmark {
+
+  @State(Scope.Thread)
+  public static class Weights {
+
+    @Param({"1024", "1048576"})
+    int size;
+
+    @Param({"0", "10"})
+    int invalidPercent;
+
+    int[]  weights;
+    byte[] levels;
+
+    @Setup
+    public void initWeights() {
+      Random random = new Random(42);
+      weights = new int[size];
+      levels = new byte[size];
+      for (int i = 0; i < size; i++) {
+        weights[i] = random.nextInt(100) < invalidPercent ? -1 - random.nextInt(100) : random.nextInt(200);
+      }
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Numbers {
+
+    @Param({"1024", "1048576"})
+    int size;
+
+    Integer[] numbers;
+    int[]     primitives;
+
+    @Setup
+    public void initNumbers() {
+      Random random = new Random(42);
+      primitives = random.ints(size).toArray();
+      numbers = new Integer[size];
+      for (int i = 0; i < size; i++) {
+        numbers[i] = primitives[i];
+      }
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void calculateWeightLevel(Weights weights, Blackhole blackhole) {
+    classifyAll(weights.weights, blackhole);
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public void calculateWeightLevelMultiThreaded(Weights weights, Blackhole blackhole) {
+    classifyAll(weights.weights, blackhole);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Object calculateWeightLevels(Weights weights) {
+    return UT02_WhatTo.calculateWeightLevels(weights.weights, weights.levels);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Object sortNumbers(Numbers numbers) {
+    return UT02_WhatTo.sortNumbers(numbers.numbers.clone());
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public Object sortNumbersMultiThreaded(Numbers numbers) {
+    return UT02_WhatTo.sortNumbers(numbers.numbers.clone());
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Object reverseNumbers(Numbers numbers) {
+    return UT02_WhatTo.reverseNumbers(numbers.numbers.clone());
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public Object reverseNumbersMultiThreaded(Numbers numbers) {
+    return UT02_WhatTo.reverseNumbers(numbers.numbers.clone());
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Object sortPrimitiveNumbers(Numbers numbers) {
+    return UT02_WhatTo.sortNumbers(numbers.primitives.clone());
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Object reversePrimitiveNumbers(Numbers numbers) {
+    return UT02_WhatTo.reverseNumbers(numbers.primitives.clone());
+  }
+
+  private static void classifyAll(int[] weights, Blackhole blackhole) {
+    for (int weight : weights) {
+      try {
+        blackhole.consume(UT02_WhatTo.calculateWeightLevel(weight));
+      } catch (IllegalArgumentException e) {
+        blackhole.consume(e);
+      }
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package de.mthix.junit5;
+
+import de.mthix.junit5.UT03_UseTheRightToolsFor.Actor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+public class UT03_UseTheRightToolsForBenchmark {
+
+  private static final String[] VALID_CODES   = {"s", "m", "l"};
+  private static final String[] INVALID_CODES = {"a", "C", ""};
+
+  @State(Scope.Thread)
+  public static class Codes {
+
+    @Param({"1024", "1048576"})
+    int size;
+
+    @Param({"0", "10"})
+    int invalidPercent;
+
+    String[]   codes;
+    ByteBuffer buffer;
+    byte[]     sizes;
+
+    @Setup
+    public void initCodes() {
+      Random random = new Random(42);
+      codes = new String[size];
+      buffer = ByteBuffer.allocateDirect(size);
+      sizes = new byte[size];
+      for (int i = 0; i < size; i++) {
+        String[] pool = random.nextInt(100) < invalidPercent ? INVALID_CODES : VALID_CODES;
+        codes[i] = pool[random.nextInt(pool.length)];
+        buffer.put(codes[i].isEmpty() ? (byte) '?' : (byte) codes[i].charAt(0));
+      }
+      buffer.flip();
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class Acting {
+
+    @Param({"commonPool", "virtualThreads"})
+    String executor;
+
+    @Param({"false", "true"})
+    boolean instrumented;
+
+    UT03_UseTheRightToolsFor ut03;
+
+    @Setup
+    public void initUT03() {
+      ut03 = new UT03_UseTheRightToolsFor(new ConstantActor());
+      if (instrumented) {
+        ut03.setMetrics(new ActorMetrics());
+      }
+      if ("virtualThreads".equals(executor)) {
+        ut03.setExecutor(BoundedExecutor.virtualThreads(Runtime.getRuntime().availableProcessors() * 64));
+      }
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void convertSizeCode(Codes codes, Blackhole blackhole) {
+    convertAll(codes.codes, blackhole);
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public void convertSizeCodeMultiThreaded(Codes codes, Blackhole blackhole) {
+    convertAll(codes.codes, blackhole);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Object decodeSizeCodes(Codes codes) {
+    return SizeCodeDecoder.decode(codes.buffer, codes.sizes);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Integer act(Acting acting) {
+    return acting.ut03.act();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public Integer actMultiThreaded(Acting acting) {
+    return acting.ut03.act();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public Integer actAsyncMultiThreaded(Acting acting) {
+    return acting.ut03.actAsync().join();
+  }
+
+  private static void convertAll(String[] codes, Blackhole blackhole) {
+    for (String code : codes) {
+      try {
+        blackhole.consume(UT03_UseTheRightToolsFor.convertSizeCode(code));
+      } catch (IllegalArgumentException e) {
+        blackhole.consume(e);
+      }
+    }
+  }
+
+  private static class ConstantActor implements Actor {
+
+    @Override
+    public Integer doSomething() {
+      return 0;
+    }
+
+    @Override
+    public void doSomethingElse() {
+    }
+
+    @Override
+    public Integer getStatus() {
+      return 0;
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package de.mthix.junit5;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static de.mthix.junit5.UT02_WhatTo.WeightLevel.HEAVY;
+
+public class WhatToColumnsBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class Records {
+
+    @Param({"1024", "1048576"})
+    int size;
+
+    @Param({"false", "true"})
+    boolean offHeap;
+
+    WhatToColumns     columns;
+    List<UT02_WhatTo> objects;
+
+    @Setup
+    public void initRecords() {
+      Random random = new Random(42);
+      columns = offHeap ? WhatToColumns.offHeap(size) : new WhatToColumns(size);
+      objects = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        int value = random.nextInt(200);
+        columns.append(i, value);
+        objects.add(new UT02_WhatTo(i, value));
+      }
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public int[] indicesOfHeavy(Records records) {
+    return records.columns.indicesOf(HEAVY);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public int[] objectScanForHeavy(Records records) {
+    return records.objects.stream().filter(record -> record.getWeight() == HEAVY).mapToInt(UT02_WhatTo::getKey).toArray();
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Object countByWeight(Records records) {
+    return records.columns.countByWeight();
+  }
+}
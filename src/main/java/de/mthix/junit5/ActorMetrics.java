@@ -0,0 +1,33 @@
+package de.mthix.junit5;
+
+import java.util.concurrent.atomic.LongAdder;
+
+class ActorMetrics {
+
+  private final LongAdder        calls    = new LongAdder();
+  private final LongAdder        failures = new LongAdder();
+  private final LatencyHistogram latency  = new LatencyHistogram();
+
+  public void recordSuccess(long nanos) {
+    calls.increment();
+    latency.record(nanos);
+  }
+
+  public void recordFailure(long nanos) {
+    calls.increment();
+    failures.increment();
+    latency.record(nanos);
+  }
+
+  public long getCalls() {
+    return calls.sum();
+  }
+
+  public long getFailures() {
+    return failures.sum();
+  }
+
+  public LatencyHistogram.Snapshot getLatency() {
+    return latency.snapshot();
+  }
+}
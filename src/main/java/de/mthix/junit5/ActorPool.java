@@ -0,0 +1,190 @@
+package de.mthix.junit5;
+
+import de.mthix.junit5.UT03_UseTheRightToolsFor.Actor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+class ActorPool implements Actor {
+
+  public static final int      DEFAULT_FAILURE_THRESHOLD = 3;
+  public static final Duration DEFAULT_EJECTION          = Duration.ofSeconds(30);
+
+  public interface RoutingStrategy {
+
+    int select(Member[] members, long now);
+  }
+
+  private final Member[]        members;
+  private final RoutingStrategy strategy;
+  private final int             failureThreshold;
+  private final long            ejectionNanos;
+  private final LongSupplier    nanoClock;
+  private final AtomicInteger   panicCursor = new AtomicInteger();
+
+  public ActorPool(List<Actor> actors, RoutingStrategy strategy) {
+    this(actors, strategy, DEFAULT_FAILURE_THRESHOLD, DEFAULT_EJECTION, System::nanoTime);
+  }
+
+  ActorPool(List<Actor> actors, RoutingStrategy strategy, int failureThreshold, Duration ejection, LongSupplier nanoClock) {
+    if (actors.isEmpty()) {
+      throw new IllegalArgumentException("No actors");
+    }
+    if (failureThreshold < 1) {
+      throw new IllegalArgumentException("Wrong failure threshold: " + failureThreshold);
+    }
+    this.members = actors.stream().map(Member::new).toArray(Member[]::new);
+    this.strategy = strategy;
+    this.failureThreshold = failureThreshold;
+    this.ejectionNanos = ejection.toNanos();
+    this.nanoClock = nanoClock;
+  }
+
+  public static RoutingStrategy roundRobin() {
+    AtomicInteger cursor = new AtomicInteger();
+    return (members, now) -> {
+      int start = cursor.getAndIncrement();
+      for (int i = 0; i < members.length; i++) {
+        int candidate = Math.floorMod(start + i, members.length);
+        if (members[candidate].isAvailable(now)) {
+          return candidate;
+        }
+      }
+      return -1;
+    };
+  }
+
+  public static RoutingStrategy leastOutstanding() {
+    return (members, now) -> {
+      int best = -1;
+      int offset = ThreadLocalRandom.current().nextInt(members.length);
+      for (int i = 0; i < members.length; i++) {
+        int candidate = (offset + i) % members.length;
+        if (members[candidate].isAvailable(now) && (best < 0 || members[candidate].getOutstanding() < members[best].getOutstanding())) {
+          best = candidate;
+        }
+      }
+      return best;
+    };
+  }
+
+  public static RoutingStrategy powerOfTwoChoices() {
+    return (members, now) -> {
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      int first = random.nextInt(members.length);
+      int second = members.length > 1 ? (first + 1 + random.nextInt(members.length - 1)) % members.length : first;
+      boolean firstAvailable = members[first].isAvailable(now);
+      boolean secondAvailable = members[second].isAvailable(now);
+      if (firstAvailable && secondAvailable) {
+        return members[first].getOutstanding() <= members[second].getOutstanding() ? first : second;
+      }
+      if (firstAvailable || secondAvailable) {
+        return firstAvailable ? first : second;
+      }
+      for (int i = 0; i < members.length; i++) {
+        if (members[i].isAvailable(now)) {
+          return i;
+        }
+      }
+      return -1;
+    };
+  }
+
+  @Override
+  public Integer doSomething() {
+    long now = nanoClock.getAsLong();
+    int selected = strategy.select(members, now);
+    Member member = members[selected >= 0 ? selected : Math.floorMod(panicCursor.getAndIncrement(), members.length)];
+    member.outstanding.incrementAndGet();
+    try {
+      Integer result = member.actor.doSomething();
+      member.consecutiveFailures.set(0);
+      return result;
+    } catch (RuntimeException e) {
+      if (member.consecutiveFailures.incrementAndGet() >= failureThreshold) {
+        member.eject(nanoClock.getAsLong() + ejectionNanos);
+      }
+      throw e;
+    } finally {
+      member.outstanding.decrementAndGet();
+    }
+  }
+
+  @Override
+  public void doSomethingElse() {
+    for (Member member : members) {
+      member.actor.doSomethingElse();
+    }
+  }
+
+  @Override
+  public Integer getStatus() {
+    long now = nanoClock.getAsLong();
+    long status = 0;
+    for (Member member : members) {
+      if (member.isAvailable(now)) {
+        status += member.getLoad();
+      }
+    }
+    return (int) Math.min(Integer.MAX_VALUE, status);
+  }
+
+  public int size() {
+    return members.length;
+  }
+
+  public int getAvailable() {
+    long now = nanoClock.getAsLong();
+    int available = 0;
+    for (Member member : members) {
+      available += member.isAvailable(now) ? 1 : 0;
+    }
+    return available;
+  }
+
+  public static class Member {
+
+    private final    Actor         actor;
+    private final    AtomicInteger outstanding         = new AtomicInteger();
+    private final    AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long          ejectedUntil;
+    private volatile boolean       ejected;
+
+    Member(Actor actor) {
+      this.actor = actor;
+    }
+
+    public boolean isAvailable(long now) {
+      if (!ejected) {
+        return true;
+      }
+      if (now - ejectedUntil >= 0) {
+        consecutiveFailures.set(0);
+        ejected = false;
+        return true;
+      }
+      return false;
+    }
+
+    public int getOutstanding() {
+      return outstanding.get();
+    }
+
+    void eject(long until) {
+      ejectedUntil = until;
+      ejected = true;
+    }
+
+    public int getLoad() {
+      try {
+        Integer status = actor.getStatus();
+        return status != null ? status : Integer.MAX_VALUE;
+      } catch (RuntimeException e) {
+        return Integer.MAX_VALUE;
+      }
+    }
+  }
+}
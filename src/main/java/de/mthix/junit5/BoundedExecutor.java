@@ -0,0 +1,110 @@
+package de.mthix.junit5;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class BoundedExecutor implements Executor {
+
+  private final Executor        delegate;
+  private final int             maxConcurrency;
+  private final AtomicInteger   running = new AtomicInteger();
+  private final Deque<Runnable> pending = new ConcurrentLinkedDeque<>();
+
+  public BoundedExecutor(Executor delegate, int maxConcurrency) {
+    if (maxConcurrency < 1) {
+      throw new IllegalArgumentException("Wrong max concurrency: " + maxConcurrency);
+    }
+    this.delegate = delegate;
+    this.maxConcurrency = maxConcurrency;
+  }
+
+  public static BoundedExecutor virtualThreads(int maxConcurrency) {
+    ExecutorService virtualThreads = newVirtualThreadPerTaskExecutor();
+    return new BoundedExecutor(virtualThreads != null ? virtualThreads : daemonThreads(), maxConcurrency);
+  }
+
+  public static boolean isVirtualThreadSupported() {
+    try {
+      Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return true;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return null;
+    }
+  }
+
+  private static ExecutorService daemonThreads() {
+    return Executors.newCachedThreadPool(task -> {
+      Thread thread = new Thread(task, "bounded-executor");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @Override
+  public void execute(Runnable task) {
+    pending.add(task);
+    drain(task);
+  }
+
+  public int getRunning() {
+    return running.get();
+  }
+
+  public int getPending() {
+    return pending.size();
+  }
+
+  public int getMaxConcurrency() {
+    return maxConcurrency;
+  }
+
+  private void drain(Runnable submitted) {
+    while (!pending.isEmpty()) {
+      int current = running.get();
+      if (current >= maxConcurrency) {
+        return;
+      }
+      if (!running.compareAndSet(current, current + 1)) {
+        continue;
+      }
+      Runnable task = pending.poll();
+      if (task == null) {
+        running.decrementAndGet();
+        continue;
+      }
+      try {
+        delegate.execute(() -> run(task));
+      } catch (RuntimeException e) {
+        running.decrementAndGet();
+        if (task != submitted) {
+          pending.addFirst(task);
+          if (submitted == null || !pending.removeLastOccurrence(submitted)) {
+            return;
+          }
+        }
+        throw e;
+      }
+    }
+  }
+
+  private void run(Runnable task) {
+    try {
+      task.run();
+    } finally {
+      running.decrementAndGet();
+      drain(null);
+    }
+  }
+}
@@ -0,0 +1,160 @@
+package de.mthix.junit5;
+
+import de.mthix.junit5.UT03_UseTheRightToolsFor.Actor;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+class CachingActor implements Actor {
+
+  private final Actor        delegate;
+  private final long         ttlNanos;
+  private final long         refreshAheadNanos;
+  private final Executor     refreshExecutor;
+  private final LongSupplier nanoClock;
+
+  private final AtomicReference<Entry>                      entry   = new AtomicReference<>();
+  private final AtomicReference<CompletableFuture<Integer>> loading = new AtomicReference<>();
+
+  private final LongAdder hits         = new LongAdder();
+  private final LongAdder misses       = new LongAdder();
+  private final LongAdder loads        = new LongAdder();
+  private final LongAdder loadFailures = new LongAdder();
+  private final LongAdder loadNanos    = new LongAdder();
+
+  public CachingActor(Actor delegate, Duration ttl, Duration refreshAhead) {
+    this(delegate, ttl, refreshAhead, ForkJoinPool.commonPool(), System::nanoTime);
+  }
+
+  CachingActor(Actor delegate, Duration ttl, Duration refreshAhead, Executor refreshExecutor, LongSupplier nanoClock) {
+    if (ttl.isNegative() || ttl.isZero()) {
+      throw new IllegalArgumentException("Wrong ttl: " + ttl);
+    }
+    this.delegate = delegate;
+    this.ttlNanos = ttl.toNanos();
+    this.refreshAheadNanos = refreshAhead.toNanos();
+    this.refreshExecutor = refreshExecutor;
+    this.nanoClock = nanoClock;
+  }
+
+  @Override
+  public Integer doSomething() {
+    return delegate.doSomething();
+  }
+
+  @Override
+  public void doSomethingElse() {
+    delegate.doSomethingElse();
+    invalidate();
+  }
+
+  @Override
+  public Integer getStatus() {
+    Entry current = entry.get();
+    if (current != null) {
+      long age = nanoClock.getAsLong() - current.loadedAt;
+      if (age < ttlNanos) {
+        hits.increment();
+        if (age >= refreshAheadNanos) {
+          load(true);
+        }
+        return current.status;
+      }
+    }
+    misses.increment();
+    try {
+      return load(false).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  public void invalidate() {
+    entry.set(null);
+    loading.set(null);
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  public long getLoads() {
+    return loads.sum();
+  }
+
+  public long getLoadFailures() {
+    return loadFailures.sum();
+  }
+
+  public long getLoadNanos() {
+    return loadNanos.sum();
+  }
+
+  public double getHitRate() {
+    long hitCount = hits.sum();
+    long requests = hitCount + misses.sum();
+    return requests == 0 ? 0 : (double) hitCount / requests;
+  }
+
+  private CompletableFuture<Integer> load(boolean async) {
+    while (true) {
+      CompletableFuture<Integer> inFlight = loading.get();
+      if (inFlight != null) {
+        return inFlight;
+      }
+      CompletableFuture<Integer> future = new CompletableFuture<>();
+      if (loading.compareAndSet(null, future)) {
+        if (async) {
+          refreshExecutor.execute(() -> complete(future));
+        } else {
+          complete(future);
+        }
+        return future;
+      }
+    }
+  }
+
+  private void complete(CompletableFuture<Integer> future) {
+    long start = nanoClock.getAsLong();
+    try {
+      Integer status = delegate.getStatus();
+      Entry loaded = new Entry(status, start);
+      entry.set(loaded);
+      if (loading.get() != future) {
+        entry.compareAndSet(loaded, null);
+      }
+      future.complete(status);
+    } catch (RuntimeException e) {
+      loadFailures.increment();
+      future.completeExceptionally(e);
+    } finally {
+      loads.increment();
+      loadNanos.add(nanoClock.getAsLong() - start);
+      loading.compareAndSet(future, null);
+    }
+  }
+
+  private static class Entry {
+
+    private final Integer status;
+    private final long    loadedAt;
+
+    Entry(Integer status, long loadedAt) {
+      this.status = status;
+      this.loadedAt = loadedAt;
+    }
+  }
+}
@@ -0,0 +1,419 @@
+package de.mthix.junit5;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+class ExternalIntSorter {
+
+  public static final long DEFAULT_MEMORY_BUDGET = 64L << 20;
+  public static final int  DEFAULT_MAX_FAN_IN    = 256;
+
+  private static final int IO_BUFFER_SIZE   = 64 * 1024;
+  private static final int MIN_MERGE_BUFFER = 4 * 1024;
+  private static final int MAX_RUN_SIZE     = Integer.MAX_VALUE - 8;
+
+  private final long     memoryBudget;
+  private final int      runSize;
+  private final int      parallelism;
+  private final int      maxFanIn;
+  private final Path     tempDir;
+  private final Executor executor;
+
+  public ExternalIntSorter() {
+    this(DEFAULT_MEMORY_BUDGET, Path.of(System.getProperty("java.io.tmpdir")));
+  }
+
+  public ExternalIntSorter(long memoryBudget, Path tempDir) {
+    this(memoryBudget, tempDir, Runtime.getRuntime().availableProcessors(), DEFAULT_MAX_FAN_IN, ForkJoinPool.commonPool());
+  }
+
+  ExternalIntSorter(long memoryBudget, Path tempDir, int parallelism, int maxFanIn, Executor executor) {
+    if (memoryBudget < Integer.BYTES) {
+      throw new IllegalArgumentException("Wrong memory budget: " + memoryBudget);
+    }
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Wrong parallelism: " + parallelism);
+    }
+    if (maxFanIn < 2) {
+      throw new IllegalArgumentException("Wrong fan-in: " + maxFanIn);
+    }
+    this.memoryBudget = memoryBudget;
+    this.runSize = (int) Math.min(MAX_RUN_SIZE, Math.max(1, memoryBudget / Integer.BYTES / (parallelism + 1)));
+    this.parallelism = parallelism;
+    this.maxFanIn = maxFanIn;
+    this.tempDir = tempDir;
+    this.executor = executor;
+  }
+
+  public int getRunSize() {
+    return runSize;
+  }
+
+  public long sort(ReadableByteChannel input, WritableByteChannel output) throws IOException {
+    try (SortedInts sorted = sort(input)) {
+      ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+      long count = 0;
+      while (sorted.hasNext()) {
+        if (buffer.remaining() < Integer.BYTES) {
+          write(output, buffer);
+        }
+        buffer.putInt(sorted.nextInt());
+        count++;
+      }
+      write(output, buffer);
+      return count;
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  public SortedInts sort(ReadableByteChannel input) throws IOException {
+    try {
+      return sort(new ChannelInts(input));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  public SortedInts sort(PrimitiveIterator.OfInt input) throws IOException {
+    List<Path> runs = new ArrayList<>();
+    List<CompletableFuture<Path>> inFlight = new ArrayList<>();
+    try {
+      int[] run = new int[runSize];
+      int length = fill(input, run);
+      if (!input.hasNext()) {
+        Arrays.sort(run, 0, length);
+        return new SortedInts(run, length);
+      }
+      while (length > 0) {
+        if (inFlight.size() == parallelism) {
+          runs.add(join(inFlight.remove(0)));
+        }
+        int[] chunk = run;
+        int chunkLength = length;
+        inFlight.add(CompletableFuture.supplyAsync(() -> spill(chunk, chunkLength), executor));
+        run = new int[runSize];
+        length = fill(input, run);
+      }
+      while (!inFlight.isEmpty()) {
+        runs.add(join(inFlight.remove(0)));
+      }
+      while (runs.size() > maxFanIn) {
+        List<Path> group = new ArrayList<>(runs.subList(0, maxFanIn));
+        runs.subList(0, maxFanIn).clear();
+        runs.add(merge(group));
+      }
+      return new SortedInts(runs, mergeBufferSize(runs.size()));
+    } catch (IOException | RuntimeException e) {
+      for (CompletableFuture<Path> future : inFlight) {
+        try {
+          runs.add(join(future));
+        } catch (IOException | RuntimeException ignored) {
+        }
+      }
+      deleteAll(runs, e);
+      throw e;
+    }
+  }
+
+  private static int fill(PrimitiveIterator.OfInt input, int[] run) {
+    int length = 0;
+    while (length < run.length && input.hasNext()) {
+      run[length++] = input.nextInt();
+    }
+    return length;
+  }
+
+  private Path spill(int[] run, int length) {
+    Arrays.sort(run, 0, length);
+    Path file = null;
+    try {
+      file = Files.createTempFile(tempDir, "sort-run-", ".bin");
+      try (FileChannel channel = FileChannel.open(file, WRITE)) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+        for (int offset = 0; offset < length; ) {
+          int count = Math.min(length - offset, buffer.capacity() / Integer.BYTES);
+          buffer.asIntBuffer().put(run, offset, count);
+          buffer.position(count * Integer.BYTES);
+          write(channel, buffer);
+          offset += count;
+        }
+      }
+      return file;
+    } catch (IOException e) {
+      deleteAll(file == null ? List.of() : List.of(file), e);
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private Path merge(List<Path> group) throws IOException {
+    Path file = null;
+    try (SortedInts sorted = new SortedInts(group, mergeBufferSize(group.size()))) {
+      file = Files.createTempFile(tempDir, "sort-run-", ".bin");
+      try (FileChannel channel = FileChannel.open(file, WRITE)) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+        while (sorted.hasNext()) {
+          if (buffer.remaining() < Integer.BYTES) {
+            write(channel, buffer);
+          }
+          buffer.putInt(sorted.nextInt());
+        }
+        write(channel, buffer);
+      }
+      return file;
+    } catch (IOException | RuntimeException e) {
+      deleteAll(file == null ? List.of() : List.of(file), e);
+      if (e instanceof UncheckedIOException) {
+        throw ((UncheckedIOException) e).getCause();
+      }
+      throw e;
+    }
+  }
+
+  private int mergeBufferSize(int runs) {
+    return (int) Math.max(MIN_MERGE_BUFFER, Math.min(IO_BUFFER_SIZE, memoryBudget / runs));
+  }
+
+  private static Path join(CompletableFuture<Path> future) throws IOException {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof UncheckedIOException) {
+        throw ((UncheckedIOException) e.getCause()).getCause();
+      }
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  private static void write(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  private static void deleteAll(List<Path> files, Exception failure) {
+    for (Path file : files) {
+      try {
+        Files.deleteIfExists(file);
+      } catch (IOException e) {
+        failure.addSuppressed(e);
+      }
+    }
+  }
+
+  public static class SortedInts implements PrimitiveIterator.OfInt, Closeable {
+
+    private final int[]       values;
+    private final int         length;
+    private final List<Path>  files;
+    private final RunReader[] readers;
+    private final int[]       heap;
+    private int               size;
+    private int               position;
+
+    SortedInts(int[] values, int length) {
+      this.values = values;
+      this.length = length;
+      this.files = List.of();
+      this.readers = new RunReader[0];
+      this.heap = new int[0];
+    }
+
+    SortedInts(List<Path> files, int bufferSize) throws IOException {
+      this.values = null;
+      this.length = 0;
+      this.files = files;
+      this.readers = new RunReader[files.size()];
+      this.heap = new int[files.size()];
+      try {
+        for (int i = 0; i < readers.length; i++) {
+          readers[i] = new RunReader(files.get(i), bufferSize);
+          if (readers[i].advance()) {
+            heap[size++] = i;
+          } else {
+            readers[i].close();
+          }
+        }
+      } catch (IOException | RuntimeException e) {
+        close();
+        throw e;
+      }
+      for (int i = size / 2 - 1; i >= 0; i--) {
+        siftDown(i);
+      }
+    }
+
+    public int getRuns() {
+      return readers.length;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return values != null ? position < length : size > 0;
+    }
+
+    @Override
+    public int nextInt() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      if (values != null) {
+        return values[position++];
+      }
+      RunReader reader = readers[heap[0]];
+      int value = reader.head;
+      try {
+        if (!reader.advance()) {
+          reader.close();
+          heap[0] = heap[--size];
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      siftDown(0);
+      return value;
+    }
+
+    @Override
+    public void close() throws IOException {
+      IOException failure = null;
+      for (RunReader reader : readers) {
+        try {
+          if (reader != null) {
+            reader.close();
+          }
+        } catch (IOException e) {
+          failure = e;
+        }
+      }
+      for (Path file : files) {
+        try {
+          Files.deleteIfExists(file);
+        } catch (IOException e) {
+          failure = e;
+        }
+      }
+      size = 0;
+      if (failure != null) {
+        throw failure;
+      }
+    }
+
+    private void siftDown(int index) {
+      int run = heap[index];
+      int value = readers[run].head;
+      while (true) {
+        int child = 2 * index + 1;
+        if (child >= size) {
+          break;
+        }
+        if (child + 1 < size && readers[heap[child + 1]].head < readers[heap[child]].head) {
+          child++;
+        }
+        if (readers[heap[child]].head >= value) {
+          break;
+        }
+        heap[index] = heap[child];
+        index = child;
+      }
+      heap[index] = run;
+    }
+  }
+
+  private static class RunReader implements Closeable {
+
+    private final FileChannel channel;
+    private final ByteBuffer  buffer;
+    private int               head;
+
+    RunReader(Path file, int bufferSize) throws IOException {
+      this.channel = FileChannel.open(file, READ);
+      this.buffer = ByteBuffer.allocateDirect(bufferSize - bufferSize % Integer.BYTES);
+      this.buffer.limit(0);
+    }
+
+    boolean advance() throws IOException {
+      if (buffer.remaining() < Integer.BYTES) {
+        buffer.compact();
+        while (buffer.position() < Integer.BYTES) {
+          if (channel.read(buffer) < 0) {
+            buffer.flip();
+            return false;
+          }
+        }
+        buffer.flip();
+      }
+      head = buffer.getInt();
+      return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+  }
+
+  private static class ChannelInts implements PrimitiveIterator.OfInt {
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer          buffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+    private boolean                   eof;
+
+    ChannelInts(ReadableByteChannel channel) {
+      this.channel = channel;
+      this.buffer.limit(0);
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (buffer.remaining() >= Integer.BYTES || eof) {
+        return buffer.remaining() >= Integer.BYTES;
+      }
+      try {
+        buffer.compact();
+        while (buffer.position() < Integer.BYTES && !eof) {
+          eof = channel.read(buffer) < 0;
+        }
+        buffer.flip();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      if (eof && buffer.hasRemaining() && buffer.remaining() < Integer.BYTES) {
+        throw new UncheckedIOException(new IOException("Truncated input: " + buffer.remaining() + " trailing bytes"));
+      }
+      return buffer.remaining() >= Integer.BYTES;
+    }
+
+    @Override
+    public int nextInt() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return buffer.getInt();
+    }
+  }
+}
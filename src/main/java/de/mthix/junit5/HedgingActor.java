@@ -0,0 +1,299 @@
+package de.mthix.junit5;
+
+import de.mthix.junit5.UT03_UseTheRightToolsFor.Actor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+class HedgingActor implements Actor {
+
+  public static final double   DEFAULT_HEDGE_PERCENTILE  = 95;
+  public static final Duration DEFAULT_MIN_HEDGE_DELAY   = Duration.ofMillis(10);
+  public static final int      DEFAULT_FAILURE_THRESHOLD = 5;
+  public static final Duration DEFAULT_OPEN_DURATION     = Duration.ofSeconds(30);
+  public static final int      DEFAULT_MAX_CALLERS       = 256;
+
+  static final int HEDGE_DELAY_REFRESH_INTERVAL = 256;
+
+  private static final int NONE_AVAILABLE = -1;
+  private static final int REJECTED       = -2;
+
+  private final Actor[]          actors;
+  private final CircuitBreaker[] breakers;
+  private final double           hedgePercentile;
+  private final long             minHedgeDelayNanos;
+  private final long             deadlineNanos;
+  private final Executor         executor;
+  private final LatencyHistogram latency    = new LatencyHistogram();
+  private final AtomicLong       successes  = new AtomicLong();
+  private final AtomicInteger    cursor     = new AtomicInteger();
+  private volatile long          hedgeDelayNanos;
+
+  private final LongAdder hedges            = new LongAdder();
+  private final LongAdder hedgeWins         = new LongAdder();
+  private final LongAdder deadlinesExceeded = new LongAdder();
+  private final LongAdder shortCircuited    = new LongAdder();
+  private final LongAdder rejected          = new LongAdder();
+
+  public HedgingActor(List<Actor> actors, Duration deadline) {
+    this(actors, deadline, newCallers());
+  }
+
+  public HedgingActor(List<Actor> actors, Duration deadline, Executor executor) {
+    this(actors, DEFAULT_HEDGE_PERCENTILE, DEFAULT_MIN_HEDGE_DELAY, deadline, DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_DURATION, executor);
+  }
+
+  HedgingActor(List<Actor> actors, double hedgePercentile, Duration minHedgeDelay, Duration deadline, int failureThreshold, Duration openDuration,
+               Executor executor) {
+    if (actors.isEmpty()) {
+      throw new IllegalArgumentException("No actors");
+    }
+    if (hedgePercentile <= 0 || hedgePercentile > 100) {
+      throw new IllegalArgumentException("Wrong hedge percentile: " + hedgePercentile);
+    }
+    if (deadline.isNegative() || deadline.isZero()) {
+      throw new IllegalArgumentException("Wrong deadline: " + deadline);
+    }
+    if (failureThreshold < 1) {
+      throw new IllegalArgumentException("Wrong failure threshold: " + failureThreshold);
+    }
+    this.actors = actors.toArray(new Actor[0]);
+    this.breakers = new CircuitBreaker[this.actors.length];
+    for (int i = 0; i < breakers.length; i++) {
+      breakers[i] = new CircuitBreaker(failureThreshold, openDuration.toNanos());
+    }
+    this.hedgePercentile = hedgePercentile;
+    this.minHedgeDelayNanos = minHedgeDelay.toNanos();
+    this.hedgeDelayNanos = minHedgeDelayNanos;
+    this.deadlineNanos = deadline.toNanos();
+    this.executor = executor;
+  }
+
+  private static ExecutorService newCallers() {
+    return new ThreadPoolExecutor(0, DEFAULT_MAX_CALLERS, 60, SECONDS, new SynchronousQueue<>(), task -> {
+      Thread thread = new Thread(task, "hedging-actor");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @Override
+  public Integer doSomething() {
+    long start = System.nanoTime();
+    long deadlineAt = start + deadlineNanos;
+    long hedgeAt = start + hedgeDelayNanos;
+    BlockingQueue<Outcome> outcomes = new LinkedBlockingQueue<>();
+    boolean[] called = new boolean[actors.length];
+    int launched = 0;
+    int finished = 0;
+    RuntimeException failure = null;
+    int offset = Math.floorMod(cursor.getAndIncrement(), actors.length);
+    int primary = launch(called, outcomes, offset, start, true);
+    if (primary == NONE_AVAILABLE) {
+      shortCircuited.increment();
+      throw new IllegalStateException("All circuits open");
+    }
+    launched++;
+    while (true) {
+      long now = System.nanoTime();
+      if (now - deadlineAt >= 0) {
+        deadlinesExceeded.increment();
+        throw new IllegalStateException("Deadline exceeded: " + Duration.ofNanos(deadlineNanos));
+      }
+      boolean canHedge = launched < actors.length && now - hedgeAt < 0;
+      Outcome outcome;
+      try {
+        outcome = outcomes.poll((canHedge ? Math.min(hedgeAt - now, deadlineAt - now) : deadlineAt - now), NANOSECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted", e);
+      }
+      if (outcome == null) {
+        if (launched < actors.length && System.nanoTime() - hedgeAt >= 0) {
+          hedgeAt = deadlineAt;
+          if (launch(called, outcomes, offset, System.nanoTime(), false) >= 0) {
+            launched++;
+            hedges.increment();
+          }
+        }
+        continue;
+      }
+      finished++;
+      if (outcome.failure == null) {
+        if (outcome.index != primary) {
+          hedgeWins.increment();
+        }
+        recordLatency(System.nanoTime() - start);
+        return outcome.result;
+      }
+      failure = outcome.failure;
+      if (finished == launched) {
+        if (launch(called, outcomes, offset, System.nanoTime(), false) < 0) {
+          throw failure;
+        }
+        launched++;
+      }
+    }
+  }
+
+  @Override
+  public void doSomethingElse() {
+    for (Actor actor : actors) {
+      actor.doSomethingElse();
+    }
+  }
+
+  @Override
+  public Integer getStatus() {
+    for (int i = 0; i < actors.length; i++) {
+      if (breakers[i].isClosed()) {
+        return actors[i].getStatus();
+      }
+    }
+    return actors[0].getStatus();
+  }
+
+  public Duration getHedgeDelay() {
+    return Duration.ofNanos(hedgeDelayNanos);
+  }
+
+  public boolean isCircuitOpen(int actorIndex) {
+    return !breakers[actorIndex].isClosed();
+  }
+
+  public long getHedges() {
+    return hedges.sum();
+  }
+
+  public long getHedgeWins() {
+    return hedgeWins.sum();
+  }
+
+  public long getDeadlinesExceeded() {
+    return deadlinesExceeded.sum();
+  }
+
+  public long getShortCircuited() {
+    return shortCircuited.sum();
+  }
+
+  public long getRejected() {
+    return rejected.sum();
+  }
+
+  public LatencyHistogram.Snapshot getLatency() {
+    return latency.snapshot();
+  }
+
+  private int launch(boolean[] called, BlockingQueue<Outcome> outcomes, int offset, long now, boolean primary) {
+    for (int i = 0; i < actors.length; i++) {
+      int index = (offset + i) % actors.length;
+      if (!called[index] && breakers[index].tryAcquire(now)) {
+        called[index] = true;
+        try {
+          executor.execute(() -> outcomes.add(call(index)));
+        } catch (RejectedExecutionException e) {
+          rejected.increment();
+          if (primary) {
+            outcomes.add(call(index));
+            return index;
+          }
+          breakers[index].release();
+          return REJECTED;
+        }
+        return index;
+      }
+    }
+    return NONE_AVAILABLE;
+  }
+
+  private Outcome call(int index) {
+    try {
+      Integer result = actors[index].doSomething();
+      breakers[index].recordSuccess();
+      return new Outcome(index, result, null);
+    } catch (RuntimeException e) {
+      breakers[index].recordFailure(System.nanoTime());
+      return new Outcome(index, null, e);
+    }
+  }
+
+  private void recordLatency(long nanos) {
+    latency.record(nanos);
+    if (successes.incrementAndGet() % HEDGE_DELAY_REFRESH_INTERVAL == 0) {
+      hedgeDelayNanos = Math.max(minHedgeDelayNanos, latency.snapshot().getValueAtPercentile(hedgePercentile));
+    }
+  }
+
+  private static class Outcome {
+
+    private final int              index;
+    private final Integer          result;
+    private final RuntimeException failure;
+
+    Outcome(int index, Integer result, RuntimeException failure) {
+      this.index = index;
+      this.result = result;
+      this.failure = failure;
+    }
+  }
+
+  static class CircuitBreaker {
+
+    private static final int CLOSED    = 0;
+    private static final int OPEN      = 1;
+    private static final int HALF_OPEN = 2;
+
+    private final int           failureThreshold;
+    private final long          openNanos;
+    private final AtomicInteger state               = new AtomicInteger(CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long       openUntil;
+
+    CircuitBreaker(int failureThreshold, long openNanos) {
+      this.failureThreshold = failureThreshold;
+      this.openNanos = openNanos;
+    }
+
+    boolean isClosed() {
+      return state.get() == CLOSED;
+    }
+
+    boolean tryAcquire(long now) {
+      int current = state.get();
+      if (current == CLOSED) {
+        return true;
+      }
+      return current == OPEN && now - openUntil >= 0 && state.compareAndSet(OPEN, HALF_OPEN);
+    }
+
+    void release() {
+      state.compareAndSet(HALF_OPEN, OPEN);
+    }
+
+    void recordSuccess() {
+      consecutiveFailures.set(0);
+      state.set(CLOSED);
+    }
+
+    void recordFailure(long now) {
+      if (consecutiveFailures.incrementAndGet() >= failureThreshold || state.get() == HALF_OPEN) {
+        openUntil = now + openNanos;
+        state.set(OPEN);
+      }
+    }
+  }
+}
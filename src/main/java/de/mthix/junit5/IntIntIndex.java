@@ -0,0 +1,242 @@
+package de.mthix.junit5;
+
+class IntIntIndex {
+
+  public static final float DEFAULT_LOAD_FACTOR = 0.5f;
+
+  private static final int FREE = 0;
+
+  public interface EntryConsumer {
+
+    void accept(int key, int value);
+  }
+
+  private final float loadFactor;
+
+  private int[]   keys;
+  private int[]   values;
+  private int     mask;
+  private int     shift;
+  private int     resizeAt;
+  private int     size;
+  private boolean hasFreeKey;
+  private int     freeKeyValue;
+
+  public IntIntIndex(int expectedSize) {
+    this(expectedSize, DEFAULT_LOAD_FACTOR);
+  }
+
+  public IntIntIndex(int expectedSize, float loadFactor) {
+    if (expectedSize < 0) {
+      throw new IllegalArgumentException("Wrong expected size: " + expectedSize);
+    }
+    if (!(loadFactor > 0 && loadFactor < 1)) {
+      throw new IllegalArgumentException("Wrong load factor: " + loadFactor);
+    }
+    this.loadFactor = loadFactor;
+    allocate(tableSizeFor((int) Math.ceil(Math.max(1, expectedSize) / loadFactor)));
+  }
+
+  public static IntIntIndex of(int[] keys, int[] values) {
+    IntIntIndex index = new IntIntIndex(keys.length);
+    index.putAll(keys, values);
+    return index;
+  }
+
+  public int get(int key, int defaultValue) {
+    if (key == FREE) {
+      return hasFreeKey ? freeKeyValue : defaultValue;
+    }
+    for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+      int candidate = keys[slot];
+      if (candidate == key) {
+        return values[slot];
+      }
+      if (candidate == FREE) {
+        return defaultValue;
+      }
+    }
+  }
+
+  public boolean containsKey(int key) {
+    if (key == FREE) {
+      return hasFreeKey;
+    }
+    return find(key) >= 0;
+  }
+
+  public void put(int key, int value) {
+    if (key == FREE) {
+      if (!hasFreeKey) {
+        hasFreeKey = true;
+        size++;
+      }
+      freeKeyValue = value;
+      return;
+    }
+    int slot = slot(key);
+    while (keys[slot] != FREE) {
+      if (keys[slot] == key) {
+        values[slot] = value;
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = key;
+    values[slot] = value;
+    if (++size > resizeAt) {
+      rehash(keys.length << 1);
+    }
+  }
+
+  public void putAll(int[] keys, int[] values) {
+    if (keys.length != values.length) {
+      throw new IllegalArgumentException("Wrong lengths: " + keys.length + " keys, " + values.length + " values");
+    }
+    for (int i = 0; i < keys.length; i++) {
+      put(keys[i], values[i]);
+    }
+  }
+
+  public boolean update(int key, int value) {
+    if (key == FREE) {
+      if (hasFreeKey) {
+        freeKeyValue = value;
+      }
+      return hasFreeKey;
+    }
+    int slot = find(key);
+    if (slot < 0) {
+      return false;
+    }
+    values[slot] = value;
+    return true;
+  }
+
+  public boolean remove(int key) {
+    if (key == FREE) {
+      if (!hasFreeKey) {
+        return false;
+      }
+      hasFreeKey = false;
+      size--;
+      return true;
+    }
+    int slot = find(key);
+    if (slot < 0) {
+      return false;
+    }
+    shiftBack(slot);
+    size--;
+    return true;
+  }
+
+  public void forEach(EntryConsumer consumer) {
+    if (hasFreeKey) {
+      consumer.accept(FREE, freeKeyValue);
+    }
+    for (int slot = 0; slot < keys.length; slot++) {
+      if (keys[slot] != FREE) {
+        consumer.accept(keys[slot], values[slot]);
+      }
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public int capacity() {
+    return keys.length;
+  }
+
+  public double getLoadFactor() {
+    return (double) size / keys.length;
+  }
+
+  public int getMaxProbeLength() {
+    int max = hasFreeKey ? 1 : 0;
+    for (int slot = 0; slot < keys.length; slot++) {
+      if (keys[slot] != FREE) {
+        max = Math.max(max, probeLength(slot));
+      }
+    }
+    return max;
+  }
+
+  public double getAverageProbeLength() {
+    long total = hasFreeKey ? 1 : 0;
+    for (int slot = 0; slot < keys.length; slot++) {
+      if (keys[slot] != FREE) {
+        total += probeLength(slot);
+      }
+    }
+    return size == 0 ? 0 : (double) total / size;
+  }
+
+  private int find(int key) {
+    for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+      int candidate = keys[slot];
+      if (candidate == key) {
+        return slot;
+      }
+      if (candidate == FREE) {
+        return -1;
+      }
+    }
+  }
+
+  private void shiftBack(int slot) {
+    int gap = slot;
+    for (int next = (gap + 1) & mask; keys[next] != FREE; next = (next + 1) & mask) {
+      int home = slot(keys[next]);
+      if (((next - home) & mask) >= ((next - gap) & mask)) {
+        keys[gap] = keys[next];
+        values[gap] = values[next];
+        gap = next;
+      }
+    }
+    keys[gap] = FREE;
+  }
+
+  private int probeLength(int slot) {
+    return ((slot - slot(keys[slot])) & mask) + 1;
+  }
+
+  private int slot(int key) {
+    return (key * 0x9E3779B9) >>> shift;
+  }
+
+  private void rehash(int capacity) {
+    int[] oldKeys = keys;
+    int[] oldValues = values;
+    allocate(capacity);
+    for (int slot = 0; slot < oldKeys.length; slot++) {
+      int key = oldKeys[slot];
+      if (key != FREE) {
+        int target = slot(key);
+        while (keys[target] != FREE) {
+          target = (target + 1) & mask;
+        }
+        keys[target] = key;
+        values[target] = oldValues[slot];
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new int[capacity];
+    values = new int[capacity];
+    mask = capacity - 1;
+    shift = 32 - Integer.numberOfTrailingZeros(capacity);
+    resizeAt = Math.min(capacity - 1, (int) (capacity * loadFactor));
+  }
+
+  private static int tableSizeFor(int minimum) {
+    int capacity = Integer.highestOneBit(Math.max(2, minimum - 1)) << 1;
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Too large: " + minimum);
+    }
+    return capacity;
+  }
+}
@@ -0,0 +1,33 @@
+package de.mthix.junit5;
+
+import java.util.concurrent.atomic.LongAdder;
+
+class InvalidInputCounter {
+
+  public static final InvalidInputCounter WEIGHTS    = new InvalidInputCounter("weight");
+  public static final InvalidInputCounter SIZE_CODES = new InvalidInputCounter("size code");
+
+  private final String    name;
+  private final LongAdder total = new LongAdder();
+
+  public InvalidInputCounter(String name) {
+    this.name = name;
+  }
+
+  public void increment() {
+    total.increment();
+  }
+
+  public long sum() {
+    return total.sum();
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public String toString() {
+    return "invalid " + name + " inputs: " + sum();
+  }
+}
@@ -0,0 +1,253 @@
+package de.mthix.junit5;
+
+import de.mthix.junit5.UT02_WhatTo.WeightLevel;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static de.mthix.junit5.UT02_WhatTo.weightLevelOrdinal;
+
+class LevelTransitionRing {
+
+  public static final int      DEFAULT_CAPACITY  = 1 << 16;
+  public static final Duration DEFAULT_MAX_BLOCK = Duration.ofMillis(1);
+
+  public enum ProducerType {
+    SINGLE,
+    MULTI
+  }
+
+  public enum Overflow {
+    DROP,
+    BLOCK
+  }
+
+  public interface WaitStrategy {
+
+    void idle(int attempt);
+  }
+
+  public interface Handler {
+
+    void onTransition(int key, WeightLevel from, WeightLevel to, long sequence, boolean endOfBatch);
+  }
+
+  private static final WeightLevel[] LEVELS      = WeightLevel.values();
+  private static final int           SPIN_TRIES  = 100;
+  private static final int           YIELD_TRIES = 200;
+  private static final VarHandle     SLOT        = MethodHandles.arrayElementVarHandle(long[].class);
+  private static final VarHandle     VALUE;
+
+  static {
+    try {
+      VALUE = MethodHandles.lookup().findVarHandle(Value.class, "value", long.class);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private final long[]       events;
+  private final long[]       published;
+  private final int          mask;
+  private final ProducerType producerType;
+  private final WaitStrategy waitStrategy;
+  private final Overflow     overflow;
+  private final long         maxBlockNanos;
+  private final Sequence     claimed        = new Sequence();
+  private final Sequence     cachedConsumed = new Sequence();
+  private final Sequence     consumed       = new Sequence();
+  private final AtomicLong   dropped        = new AtomicLong();
+
+  public LevelTransitionRing(ProducerType producerType) {
+    this(DEFAULT_CAPACITY, producerType, yielding());
+  }
+
+  public LevelTransitionRing(int capacity, ProducerType producerType, WaitStrategy waitStrategy) {
+    this(capacity, producerType, waitStrategy, Overflow.BLOCK);
+  }
+
+  public LevelTransitionRing(int capacity, ProducerType producerType, WaitStrategy waitStrategy, Overflow overflow) {
+    this(capacity, producerType, waitStrategy, overflow, DEFAULT_MAX_BLOCK);
+  }
+
+  public LevelTransitionRing(int capacity, ProducerType producerType, WaitStrategy waitStrategy, Overflow overflow, Duration maxBlock) {
+    if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Wrong capacity: " + capacity);
+    }
+    this.events = new long[capacity];
+    this.published = new long[capacity];
+    this.mask = capacity - 1;
+    this.producerType = producerType;
+    this.waitStrategy = waitStrategy;
+    this.overflow = overflow;
+    this.maxBlockNanos = maxBlock.toNanos();
+    Arrays.fill(published, -1);
+  }
+
+  public static WaitStrategy busySpin() {
+    return attempt -> Thread.onSpinWait();
+  }
+
+  public static WaitStrategy yielding() {
+    return attempt -> {
+      if (attempt < SPIN_TRIES) {
+        Thread.onSpinWait();
+      } else {
+        Thread.yield();
+      }
+    };
+  }
+
+  public static WaitStrategy sleeping(Duration park) {
+    long parkNanos = park.toNanos();
+    return attempt -> {
+      if (attempt < SPIN_TRIES) {
+        Thread.onSpinWait();
+      } else if (attempt < YIELD_TRIES) {
+        Thread.yield();
+      } else {
+        LockSupport.parkNanos(parkNanos);
+      }
+    };
+  }
+
+  public void register(UT02_WhatTo record) {
+    record.attach(this);
+  }
+
+  public void unregister(UT02_WhatTo record) {
+    record.detach(this);
+  }
+
+  void changed(int key, int oldValue, int newValue) {
+    int from = weightLevelOrdinal(oldValue);
+    int to = weightLevelOrdinal(newValue);
+    if (from != to) {
+      publish(key, from, to);
+    }
+  }
+
+  public boolean publish(int key, WeightLevel from, WeightLevel to) {
+    return publish(key, from == null ? -1 : from.ordinal(), to == null ? -1 : to.ordinal());
+  }
+
+  boolean publish(int key, int fromOrdinal, int toOrdinal) {
+    long sequence = claim();
+    if (sequence < 0 && overflow == Overflow.BLOCK) {
+      long deadline = System.nanoTime() + maxBlockNanos;
+      for (int attempt = 0; sequence < 0 && System.nanoTime() - deadline < 0 && !Thread.currentThread().isInterrupted(); attempt++) {
+        waitStrategy.idle(attempt);
+        sequence = claim();
+      }
+    }
+    if (sequence < 0) {
+      dropped.incrementAndGet();
+      return false;
+    }
+    int index = (int) sequence & mask;
+    events[index] = (long) key << 32 | (fromOrdinal + 1) << 2 | (toOrdinal + 1);
+    SLOT.setRelease(published, index, sequence);
+    return true;
+  }
+
+  public int drain(Handler handler, int maxBatch) {
+    long next = consumed.value;
+    long available = next;
+    long limit = next + maxBatch;
+    while (available < limit && (long) SLOT.getAcquire(published, (int) available & mask) == available) {
+      available++;
+    }
+    for (long sequence = next; sequence < available; sequence++) {
+      long event = events[(int) sequence & mask];
+      handler.onTransition((int) (event >>> 32), level((int) event >>> 2 & 3), level((int) event & 3), sequence, sequence == available - 1);
+    }
+    VALUE.setRelease(consumed, available);
+    return (int) (available - next);
+  }
+
+  public int poll(Handler handler, int maxBatch, Duration timeout) {
+    long deadline = System.nanoTime() + timeout.toNanos();
+    for (int attempt = 0; ; attempt++) {
+      int drained = drain(handler, maxBatch);
+      if (drained > 0 || System.nanoTime() - deadline >= 0 || Thread.currentThread().isInterrupted()) {
+        return drained;
+      }
+      waitStrategy.idle(attempt);
+    }
+  }
+
+  public ProducerType getProducerType() {
+    return producerType;
+  }
+
+  public int getCapacity() {
+    return events.length;
+  }
+
+  public long getClaimed() {
+    return (long) VALUE.getVolatile(claimed);
+  }
+
+  public long getConsumed() {
+    return (long) VALUE.getVolatile(consumed);
+  }
+
+  public long getBacklog() {
+    return getClaimed() - getConsumed();
+  }
+
+  public long getDropped() {
+    return dropped.get();
+  }
+
+  private long claim() {
+    return producerType == ProducerType.SINGLE ? claimSingle() : claimMulti();
+  }
+
+  private long claimSingle() {
+    long sequence = claimed.value;
+    if (sequence - events.length >= cachedConsumed.value) {
+      cachedConsumed.value = (long) VALUE.getAcquire(consumed);
+      if (sequence - events.length >= cachedConsumed.value) {
+        return -1;
+      }
+    }
+    VALUE.setRelease(claimed, sequence + 1);
+    return sequence;
+  }
+
+  private long claimMulti() {
+    while (true) {
+      long sequence = (long) VALUE.getVolatile(claimed);
+      if (sequence - events.length >= (long) VALUE.getAcquire(consumed)) {
+        return -1;
+      }
+      if (VALUE.compareAndSet(claimed, sequence, sequence + 1)) {
+        return sequence;
+      }
+    }
+  }
+
+  private static WeightLevel level(int code) {
+    return code == 0 ? null : LEVELS[code - 1];
+  }
+
+  private static class LeftPadding {
+
+    long p01, p02, p03, p04, p05, p06, p07;
+  }
+
+  private static class Value extends LeftPadding {
+
+    long value;
+  }
+
+  private static class Sequence extends Value {
+
+    long p11, p12, p13, p14, p15, p16, p17;
+  }
+}
@@ -0,0 +1,189 @@
+package de.mthix.junit5;
+
+import de.mthix.junit5.UT03_UseTheRightToolsFor.BatchActor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+class MicroBatcher {
+
+  public enum Overflow {
+    REJECT,
+    CALLER_RUNS
+  }
+
+  public static final Duration DEFAULT_WINDOW      = Duration.ofMillis(1);
+  public static final int      DEFAULT_MAX_BATCH   = 64;
+  public static final int      DEFAULT_MAX_PENDING = 4096;
+
+  private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(task -> {
+    Thread thread = new Thread(task, "micro-batcher");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private final BatchActor               actor;
+  private final long                     windowNanos;
+  private final int                      maxBatchSize;
+  private final int                      maxPending;
+  private final Overflow                 overflow;
+  private final ScheduledExecutorService timer;
+  private final Executor                 executor;
+  private final AtomicInteger            pending = new AtomicInteger();
+
+  private List<CompletableFuture<Integer>> current;
+
+  private final LongAdder batches      = new LongAdder();
+  private final LongAdder batchedCalls = new LongAdder();
+  private final LongAdder overflows    = new LongAdder();
+
+  public MicroBatcher(BatchActor actor) {
+    this(actor, DEFAULT_WINDOW, DEFAULT_MAX_BATCH, DEFAULT_MAX_PENDING, Overflow.REJECT);
+  }
+
+  public MicroBatcher(BatchActor actor, Duration window, int maxBatchSize, int maxPending, Overflow overflow) {
+    this(actor, window, maxBatchSize, maxPending, overflow, TIMER, ForkJoinPool.commonPool());
+  }
+
+  MicroBatcher(BatchActor actor, Duration window, int maxBatchSize, int maxPending, Overflow overflow, ScheduledExecutorService timer,
+               Executor executor) {
+    if (window.isNegative()) {
+      throw new IllegalArgumentException("Wrong window: " + window);
+    }
+    if (maxBatchSize < 1) {
+      throw new IllegalArgumentException("Wrong max batch size: " + maxBatchSize);
+    }
+    if (maxPending < maxBatchSize) {
+      throw new IllegalArgumentException("Wrong max pending: " + maxPending);
+    }
+    this.actor = actor;
+    this.windowNanos = window.toNanos();
+    this.maxBatchSize = maxBatchSize;
+    this.maxPending = maxPending;
+    this.overflow = overflow;
+    this.timer = timer;
+    this.executor = executor;
+  }
+
+  public CompletableFuture<Integer> submit() {
+    if (pending.incrementAndGet() > maxPending) {
+      pending.decrementAndGet();
+      overflows.increment();
+      if (overflow == Overflow.CALLER_RUNS) {
+        return callDirectly();
+      }
+      return CompletableFuture.failedFuture(new RejectedExecutionException("Too many pending: " + maxPending));
+    }
+    CompletableFuture<Integer> future = new CompletableFuture<>();
+    List<CompletableFuture<Integer>> full = null;
+    synchronized (this) {
+      if (current == null) {
+        List<CompletableFuture<Integer>> batch = new ArrayList<>(maxBatchSize);
+        current = batch;
+        timer.schedule(() -> flush(batch), windowNanos, NANOSECONDS);
+      }
+      current.add(future);
+      if (current.size() >= maxBatchSize) {
+        full = current;
+        current = null;
+      }
+    }
+    if (full != null) {
+      execute(full);
+    }
+    return future;
+  }
+
+  public void flush() {
+    List<CompletableFuture<Integer>> batch;
+    synchronized (this) {
+      batch = current;
+      current = null;
+    }
+    if (batch != null) {
+      dispatch(batch);
+    }
+  }
+
+  public int getPending() {
+    return pending.get();
+  }
+
+  public long getBatches() {
+    return batches.sum();
+  }
+
+  public long getBatchedCalls() {
+    return batchedCalls.sum();
+  }
+
+  public long getOverflows() {
+    return overflows.sum();
+  }
+
+  public double getAverageBatchSize() {
+    long batchCount = batches.sum();
+    return batchCount == 0 ? 0 : (double) batchedCalls.sum() / batchCount;
+  }
+
+  private void flush(List<CompletableFuture<Integer>> batch) {
+    synchronized (this) {
+      if (current != batch) {
+        return;
+      }
+      current = null;
+    }
+    execute(batch);
+  }
+
+  private void execute(List<CompletableFuture<Integer>> batch) {
+    try {
+      executor.execute(() -> dispatch(batch));
+    } catch (RejectedExecutionException e) {
+      for (CompletableFuture<Integer> future : batch) {
+        future.completeExceptionally(e);
+      }
+      pending.addAndGet(-batch.size());
+    }
+  }
+
+  private void dispatch(List<CompletableFuture<Integer>> batch) {
+    int size = batch.size();
+    batches.increment();
+    batchedCalls.add(size);
+    try {
+      List<Integer> results = actor.doSomething(size);
+      if (results.size() != size) {
+        throw new IllegalStateException("Wrong batch result size: " + results.size() + " for " + size + " calls");
+      }
+      for (int i = 0; i < size; i++) {
+        batch.get(i).complete(results.get(i));
+      }
+    } catch (RuntimeException e) {
+      for (CompletableFuture<Integer> future : batch) {
+        future.completeExceptionally(e);
+      }
+    } finally {
+      pending.addAndGet(-size);
+    }
+  }
+
+  private CompletableFuture<Integer> callDirectly() {
+    try {
+      return CompletableFuture.completedFuture(actor.doSomething());
+    } catch (RuntimeException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+}
@@ -0,0 +1,220 @@
+package de.mthix.junit5;
+
+import de.mthix.junit5.UT02_WhatTo.WeightLevel;
+import de.mthix.junit5.UT03_UseTheRightToolsFor.Size;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.function.IntUnaryOperator;
+
+import static de.mthix.junit5.SizeCodeDecoder.isLineBreak;
+import static de.mthix.junit5.SizeCodeDecoder.sizeOrdinal;
+import static de.mthix.junit5.UT02_WhatTo.weightLevelOrdinal;
+
+class PackedEnumColumn<E extends Enum<E>> {
+
+  public static final int MAGIC       = 0x50454331;
+  public static final int HEADER_SIZE = 16;
+
+  static final int  BITS_PER_VALUE  = 2;
+  static final int  VALUES_PER_WORD = Long.SIZE / BITS_PER_VALUE;
+  static final long LOW_BITS        = 0x5555_5555_5555_5555L;
+
+  private static final int  BUFFER_SIZE = 64 * 1024;
+  private static final long MAX_SIZE    = (long) Integer.MAX_VALUE * VALUES_PER_WORD;
+
+  private final E[]    constants;
+  private final long[] words;
+  private final long   size;
+
+  public PackedEnumColumn(Class<E> type, long size) {
+    this.constants = type.getEnumConstants();
+    if (constants.length > 3) {
+      throw new IllegalArgumentException("Wrong enum, more than 3 constants: " + type.getName());
+    }
+    if (size < 0 || size > MAX_SIZE) {
+      throw new IllegalArgumentException("Wrong size: " + size);
+    }
+    this.size = size;
+    this.words = new long[(int) ((size + VALUES_PER_WORD - 1) / VALUES_PER_WORD)];
+  }
+
+  public static PackedEnumColumn<WeightLevel> ofWeights(int[] weights) {
+    PackedEnumColumn<WeightLevel> column = new PackedEnumColumn<>(WeightLevel.class, weights.length);
+    column.fill(0, weights.length, i -> weightLevelOrdinal(weights[i]));
+    return column;
+  }
+
+  public static PackedEnumColumn<Size> ofSizeCodes(CharSequence codes) {
+    return ofSizeCodes(codes.length(), codes::charAt);
+  }
+
+  public static PackedEnumColumn<Size> ofSizeCodes(ByteBuffer codes) {
+    int position = codes.position();
+    return ofSizeCodes(codes.remaining(), i -> codes.get(position + i));
+  }
+
+  private static PackedEnumColumn<Size> ofSizeCodes(int length, IntUnaryOperator codes) {
+    int count = 0;
+    for (int i = 0; i < length; i++) {
+      if (!isLineBreak(codes.applyAsInt(i))) {
+        count++;
+      }
+    }
+    PackedEnumColumn<Size> column = new PackedEnumColumn<>(Size.class, count);
+    int[] cursor = new int[1];
+    column.fill(0, count, i -> {
+      int code = codes.applyAsInt(cursor[0]++);
+      while (isLineBreak(code)) {
+        code = codes.applyAsInt(cursor[0]++);
+      }
+      return sizeOrdinal(code);
+    });
+    return column;
+  }
+
+  public long size() {
+    return size;
+  }
+
+  public E get(long index) {
+    int code = code(index);
+    return code == 0 ? null : constants[code - 1];
+  }
+
+  public int getOrdinal(long index) {
+    return code(index) - 1;
+  }
+
+  public void set(long index, E value) {
+    setOrdinal(index, value == null ? -1 : value.ordinal());
+  }
+
+  public void setOrdinal(long index, int ordinal) {
+    checkIndex(index);
+    int word = (int) (index / VALUES_PER_WORD);
+    int shift = (int) (index % VALUES_PER_WORD) * BITS_PER_VALUE;
+    words[word] = (words[word] & ~(3L << shift)) | ((long) toCode(ordinal) << shift);
+  }
+
+  public void fill(long offset, int count, IntUnaryOperator ordinals) {
+    if (offset < 0 || count < 0 || offset + count > size) {
+      throw new IndexOutOfBoundsException("Wrong range: " + offset + "+" + count + " of " + size);
+    }
+    int i = 0;
+    while (i < count && (offset + i) % VALUES_PER_WORD != 0) {
+      setOrdinal(offset + i, ordinals.applyAsInt(i));
+      i++;
+    }
+    for (int word = (int) ((offset + i) / VALUES_PER_WORD); count - i >= VALUES_PER_WORD; word++) {
+      long packed = 0;
+      for (int slot = 0; slot < VALUES_PER_WORD; slot++, i++) {
+        packed |= (long) toCode(ordinals.applyAsInt(i)) << (slot * BITS_PER_VALUE);
+      }
+      words[word] = packed;
+    }
+    while (i < count) {
+      setOrdinal(offset + i, ordinals.applyAsInt(i));
+      i++;
+    }
+  }
+
+  public long count(E value) {
+    int code = value.ordinal() + 1;
+    long matchLow = (code & 1) != 0 ? 0 : -1L;
+    long matchHigh = (code & 2) != 0 ? 0 : -1L;
+    long count = 0;
+    for (long word : words) {
+      count += Long.bitCount((word ^ matchLow) & ((word >>> 1) ^ matchHigh) & LOW_BITS);
+    }
+    return count;
+  }
+
+  public long countInvalid() {
+    long count = 0;
+    for (long word : words) {
+      count += Long.bitCount(~(word | (word >>> 1)) & LOW_BITS);
+    }
+    return count - ((long) words.length * VALUES_PER_WORD - size);
+  }
+
+  public long getMemoryBytes() {
+    return (long) words.length * Long.BYTES;
+  }
+
+  public void writeTo(WritableByteChannel channel) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    buffer.putInt(MAGIC).putInt(constants.length).putLong(size);
+    for (long word : words) {
+      if (buffer.remaining() < Long.BYTES) {
+        write(channel, buffer);
+      }
+      buffer.putLong(word);
+    }
+    write(channel, buffer);
+  }
+
+  public static <E extends Enum<E>> PackedEnumColumn<E> readFrom(ReadableByteChannel channel, Class<E> type) throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    read(channel, header);
+    int magic = header.getInt();
+    if (magic != MAGIC) {
+      throw new IOException("Wrong magic: " + Integer.toHexString(magic));
+    }
+    int constantCount = header.getInt();
+    if (constantCount != type.getEnumConstants().length) {
+      throw new IOException("Wrong constant count " + constantCount + " for " + type.getName());
+    }
+    long size = header.getLong();
+    if (size < 0 || size > MAX_SIZE) {
+      throw new IOException("Wrong size: " + size);
+    }
+    PackedEnumColumn<E> column = new PackedEnumColumn<>(type, size);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    for (int word = 0; word < column.words.length; ) {
+      buffer.clear().limit((int) Math.min(buffer.capacity(), (long) (column.words.length - word) * Long.BYTES));
+      read(channel, buffer);
+      while (buffer.hasRemaining()) {
+        column.words[word++] = buffer.getLong();
+      }
+    }
+    return column;
+  }
+
+  private int code(long index) {
+    checkIndex(index);
+    return (int) (words[(int) (index / VALUES_PER_WORD)] >>> ((index % VALUES_PER_WORD) * BITS_PER_VALUE)) & 3;
+  }
+
+  private int toCode(int ordinal) {
+    if (ordinal < -1 || ordinal >= constants.length) {
+      throw new IllegalArgumentException("Wrong ordinal: " + ordinal);
+    }
+    return ordinal + 1;
+  }
+
+  private void checkIndex(long index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+    }
+  }
+
+  private static void write(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  private static void read(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer) < 0) {
+        throw new IOException("Truncated column: " + buffer.remaining() + " bytes missing");
+      }
+    }
+    buffer.flip();
+  }
+}
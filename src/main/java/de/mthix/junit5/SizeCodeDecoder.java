@@ -0,0 +1,91 @@
+package de.mthix.junit5;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+class SizeCodeDecoder {
+
+  public static final byte INVALID_SIZE = -1;
+
+  private static final byte[] ORDINALS = new byte[128];
+
+  static {
+    Arrays.fill(ORDINALS, INVALID_SIZE);
+    ORDINALS['s'] = 0;
+    ORDINALS['m'] = 1;
+    ORDINALS['l'] = 2;
+  }
+
+  private SizeCodeDecoder() {
+  }
+
+  public static int sizeOrdinal(int code) {
+    return (code & ~0x7F) == 0 ? ORDINALS[code] : INVALID_SIZE;
+  }
+
+  public static SizeHistogram decode(ByteBuffer codes, byte[] sizes) {
+    SizeHistogram histogram = new SizeHistogram();
+    decode(codes, sizes, 0, histogram);
+    return histogram;
+  }
+
+  public static int decode(ByteBuffer codes, byte[] sizes, int offset, SizeHistogram histogram) {
+    int out = offset;
+    if (codes.hasArray()) {
+      byte[] array = codes.array();
+      int end = codes.arrayOffset() + codes.limit();
+      for (int i = codes.arrayOffset() + codes.position(); i < end; i++) {
+        out = decode(array[i], sizes, out, histogram);
+      }
+    } else {
+      for (int i = codes.position(), end = codes.limit(); i < end; i++) {
+        out = decode(codes.get(i), sizes, out, histogram);
+      }
+    }
+    return out;
+  }
+
+  public static SizeHistogram decode(CharSequence codes, byte[] sizes) {
+    SizeHistogram histogram = new SizeHistogram();
+    int out = 0;
+    for (int i = 0, end = codes.length(); i < end; i++) {
+      out = decode(codes.charAt(i), sizes, out, histogram);
+    }
+    return histogram;
+  }
+
+  public static SizeHistogram decode(Path file, byte[] sizes) throws IOException {
+    SizeHistogram histogram = new SizeHistogram();
+    try (FileChannel channel = FileChannel.open(file, READ)) {
+      int out = 0;
+      for (long position = 0, size = channel.size(); position < size; position += Integer.MAX_VALUE) {
+        MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(Integer.MAX_VALUE, size - position));
+        out = decode(chunk, sizes, out, histogram);
+      }
+    }
+    return histogram;
+  }
+
+  static boolean isLineBreak(int code) {
+    return code == '\n' || code == '\r';
+  }
+
+  private static int decode(int code, byte[] sizes, int out, SizeHistogram histogram) {
+    if (isLineBreak(code)) {
+      return out;
+    }
+    if (out == sizes.length) {
+      throw new IllegalArgumentException("Output too small: " + sizes.length);
+    }
+    int ordinal = sizeOrdinal(code);
+    sizes[out] = (byte) ordinal;
+    histogram.count(ordinal);
+    return out + 1;
+  }
+}
@@ -0,0 +1,53 @@
+package de.mthix.junit5;
+
+import de.mthix.junit5.UT03_UseTheRightToolsFor.Size;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+class SizeHistogram {
+
+  private static final Size[] SIZES = Size.values();
+
+  private final long[] counts = new long[SIZES.length + 1];
+
+  void count(int ordinal) {
+    counts[ordinal + 1]++;
+  }
+
+  SizeHistogram merge(SizeHistogram other) {
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] += other.counts[i];
+    }
+    return this;
+  }
+
+  public long get(Size size) {
+    return counts[size.ordinal() + 1];
+  }
+
+  public long getInvalid() {
+    return counts[0];
+  }
+
+  public long getTotal() {
+    long total = 0;
+    for (long count : counts) {
+      total += count;
+    }
+    return total;
+  }
+
+  public Map<Size, Long> toMap() {
+    Map<Size, Long> map = new EnumMap<>(Size.class);
+    for (Size size : SIZES) {
+      map.put(size, get(size));
+    }
+    return map;
+  }
+
+  @Override
+  public String toString() {
+    return toMap() + ", invalid=" + getInvalid();
+  }
+}
@@ -0,0 +1,75 @@
+package de.mthix.junit5;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+class StringPool {
+
+  private static final int STRING_OVERHEAD_BYTES = 40;
+
+  private final AtomicReferenceArray<WeakReference<String>> slots;
+  private final int                                         mask;
+
+  private final LongAdder hits       = new LongAdder();
+  private final LongAdder misses     = new LongAdder();
+  private final LongAdder savedBytes = new LongAdder();
+
+  public StringPool(int capacity) {
+    if (capacity < 1 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("Wrong capacity: " + capacity);
+    }
+    int size = Integer.highestOneBit(capacity - 1) << 1;
+    slots = new AtomicReferenceArray<>(Math.max(1, size));
+    mask = slots.length() - 1;
+  }
+
+  public String intern(String string) {
+    if (string == null) {
+      return null;
+    }
+    int hash = string.hashCode();
+    int slot = (hash ^ (hash >>> 16)) & mask;
+    WeakReference<String> reference = slots.get(slot);
+    String pooled = reference != null ? reference.get() : null;
+    if (pooled != null && pooled.equals(string)) {
+      if (pooled != string) {
+        hits.increment();
+        savedBytes.add(STRING_OVERHEAD_BYTES + string.length());
+      }
+      return pooled;
+    }
+    misses.increment();
+    slots.set(slot, new WeakReference<>(string));
+    return string;
+  }
+
+  public String[] internAll(String[] strings) {
+    for (int i = 0; i < strings.length; i++) {
+      strings[i] = intern(strings[i]);
+    }
+    return strings;
+  }
+
+  public int capacity() {
+    return slots.length();
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  public double getHitRate() {
+    long hitCount = hits.sum();
+    long lookups = hitCount + misses.sum();
+    return lookups == 0 ? 0 : (double) hitCount / lookups;
+  }
+
+  public long getSavedBytes() {
+    return savedBytes.sum();
+  }
+}
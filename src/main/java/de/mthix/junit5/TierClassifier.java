@@ -0,0 +1,125 @@
+package de.mthix.junit5;
+
+import java.util.Arrays;
+
+class TierClassifier {
+
+  public static final int INVALID_TIER = -1;
+  public static final int MAX_TIERS    = Byte.MAX_VALUE;
+  public static final int DENSE_LIMIT  = 4096;
+
+  public static final Table WEIGHT_LEVELS = Table.of(0, 10, 100);
+
+  private volatile Table table;
+
+  public TierClassifier(Table table) {
+    this.table = table;
+  }
+
+  public static TierClassifier weightLevels() {
+    return new TierClassifier(WEIGHT_LEVELS);
+  }
+
+  public int classify(int weight) {
+    return table.classify(weight);
+  }
+
+  public int classify(int[] weights, byte[] tiers) {
+    if (tiers.length < weights.length) {
+      throw new IllegalArgumentException("Output too small: " + tiers.length + " < " + weights.length);
+    }
+    Table current = table;
+    int invalid = 0;
+    for (int i = 0; i < weights.length; i++) {
+      int tier = current.classify(weights[i]);
+      tiers[i] = (byte) tier;
+      invalid += tier >>> 31;
+    }
+    return invalid;
+  }
+
+  public Table getTable() {
+    return table;
+  }
+
+  public Table swap(Table table) {
+    Table previous = this.table;
+    this.table = table;
+    return previous;
+  }
+
+  public Table reload(int minimum, int... thresholds) {
+    return swap(Table.of(minimum, thresholds));
+  }
+
+  public static class Table {
+
+    private final int    minimum;
+    private final int[]  thresholds;
+    private final int[]  search;
+    private final byte[] dense;
+
+    Table(int minimum, int[] thresholds, boolean dense) {
+      if (thresholds.length >= MAX_TIERS) {
+        throw new IllegalArgumentException("Wrong tier count: " + (thresholds.length + 1));
+      }
+      for (int i = 0; i < thresholds.length; i++) {
+        int lower = i == 0 ? minimum : thresholds[i - 1] + 1;
+        if (thresholds[i] < lower || thresholds[i] == Integer.MAX_VALUE) {
+          throw new IllegalArgumentException("Wrong threshold: " + thresholds[i]);
+        }
+      }
+      this.minimum = minimum;
+      this.thresholds = thresholds.clone();
+      this.search = Arrays.copyOf(thresholds, Integer.highestOneBit(Math.max(1, thresholds.length) * 2 - 1));
+      Arrays.fill(search, thresholds.length, search.length, Integer.MAX_VALUE);
+      long range = (thresholds.length == 0 ? minimum : (long) thresholds[thresholds.length - 1]) - minimum + 1;
+      this.dense = dense && range <= DENSE_LIMIT ? denseTable((int) range) : new byte[0];
+    }
+
+    public static Table of(int minimum, int... thresholds) {
+      return new Table(minimum, thresholds, true);
+    }
+
+    public int classify(int weight) {
+      int offset = weight - minimum;
+      if (Integer.compareUnsigned(offset, dense.length) < 0) {
+        return dense[offset];
+      }
+      return weight < minimum ? INVALID_TIER : search(weight);
+    }
+
+    public int getTierCount() {
+      return thresholds.length + 1;
+    }
+
+    public int getMinimum() {
+      return minimum;
+    }
+
+    public int[] getThresholds() {
+      return thresholds.clone();
+    }
+
+    public boolean isDense() {
+      return dense.length > 0;
+    }
+
+    int search(int weight) {
+      int[] table = search;
+      int base = 0;
+      for (int half = table.length >>> 1; half > 0; half >>>= 1) {
+        base += table[base + half - 1] < weight ? half : 0;
+      }
+      return base + (table[base] < weight ? 1 : 0);
+    }
+
+    private byte[] denseTable(int range) {
+      byte[] table = new byte[range];
+      for (int i = 0; i < range; i++) {
+        table[i] = (byte) search(minimum + i);
+      }
+      return table;
+    }
+  }
+}
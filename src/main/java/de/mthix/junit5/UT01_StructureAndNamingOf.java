@@ -1,32 +1,81 @@
 package de.mthix.junit5;
 
 import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 
 import static java.util.Arrays.asList;
 
 class UT01_StructureAndNamingOf {
 
-  private int     complexity = 0;
-  private boolean changed    = false;
+  private static final long APPROXIMATION_NANOS = 1_000_000;
+
+  private final LongAdder concurrentComplexity;
+
+  private          StringPool stringPool;
+  private          int        complexity            = 0;
+  private volatile boolean    changed               = false;
+  private volatile int        approximateComplexity = 0;
+  private volatile long       approximatedAt        = System.nanoTime() - APPROXIMATION_NANOS;
+
+  public UT01_StructureAndNamingOf() {
+    this(false);
+  }
+
+  public UT01_StructureAndNamingOf(boolean threadSafe) {
+    concurrentComplexity = threadSafe ? new LongAdder() : null;
+  }
 
   public List<String> toList(String... args) {
-    return asList(args);
+    return asList(intern(args));
   }
 
   public String[] toArray(String... args) {
-    return args;
+    return intern(args);
+  }
+
+  public void setStringPool(StringPool stringPool) {
+    this.stringPool = stringPool;
   }
 
   public void increaseComplexity() {
-    complexity++;
-    changed = true;
+    if (concurrentComplexity != null) {
+      concurrentComplexity.increment();
+    } else {
+      complexity++;
+    }
+    if (!changed) {
+      changed = true;
+    }
   }
 
   public int getComplexity() {
+    if (concurrentComplexity != null) {
+      return concurrentComplexity.intValue();
+    }
     return complexity;
   }
 
+  public int getApproximateComplexity() {
+    if (concurrentComplexity == null) {
+      return complexity;
+    }
+    long now = System.nanoTime();
+    if (now - approximatedAt >= APPROXIMATION_NANOS) {
+      approximateComplexity = concurrentComplexity.intValue();
+      approximatedAt = now;
+    }
+    return approximateComplexity;
+  }
+
+  public boolean isThreadSafe() {
+    return concurrentComplexity != null;
+  }
+
   public boolean isChanged() {
     return changed;
   }
+
+  private String[] intern(String[] args) {
+    return stringPool != null ? stringPool.internAll(args) : args;
+  }
 }
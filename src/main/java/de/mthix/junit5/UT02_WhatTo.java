@@ -1,21 +1,51 @@
 package de.mthix.junit5;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.IntBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
 
-import static de.mthix.junit5.UT02_WhatTo.WeightLevel.*;
 import static java.util.Arrays.asList;
 
 class UT02_WhatTo {
 
+  public static final int  PARALLEL_SORT_THRESHOLD     = 1 << 16;
+  public static final int  PARALLEL_CLASSIFY_THRESHOLD = 1 << 16;
+  public static final byte INVALID_WEIGHT_LEVEL        = -1;
+
   public enum WeightLevel {
     LIGHT,
     MEDIUM,
     HEAVY
   }
 
-  private int key   = 7;
-  private int value = 54;
+  private static final WeightLevel[] WEIGHT_LEVELS = WeightLevel.values();
+  private static final int           MIN_WEIGHT    = TierClassifier.WEIGHT_LEVELS.getMinimum();
+  private static final int           MAX_LIGHT     = TierClassifier.WEIGHT_LEVELS.getThresholds()[0];
+  private static final int           MAX_MEDIUM    = TierClassifier.WEIGHT_LEVELS.getThresholds()[1];
+  private static final VarHandle     VALUE;
+
+  static {
+    try {
+      VALUE = MethodHandles.lookup().findVarHandle(UT02_WhatTo.class, "value", int.class);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private int                 key   = 7;
+  private int                 value = 54;
+  private WeightLevelRegistry registry;
+  private WhatToChangeLog     changeLog;
+  private LevelTransitionRing transitions;
 
   public UT02_WhatTo(int key, int value) {
     this.key = key;
@@ -31,7 +61,87 @@ class UT02_WhatTo {
   }
 
   public void setValue(int value) {
-    this.value = value;
+    WhatToChangeLog changeLog = this.changeLog;
+    if (changeLog == null) {
+      apply(value);
+      return;
+    }
+    synchronized (this) {
+      try {
+        changeLog.append(key, value);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      apply(value);
+    }
+  }
+
+  private void apply(int value) {
+    WeightLevelRegistry registry = this.registry;
+    LevelTransitionRing transitions = this.transitions;
+    if (registry == null && transitions == null) {
+      this.value = value;
+      return;
+    }
+    if (transitions != null && transitions.getProducerType() == LevelTransitionRing.ProducerType.MULTI) {
+      synchronized (this) {
+        notify(registry, transitions, value);
+      }
+    } else {
+      notify(registry, transitions, value);
+    }
+  }
+
+  private void notify(WeightLevelRegistry registry, LevelTransitionRing transitions, int value) {
+    int oldValue = (int) VALUE.getAndSet(this, value);
+    if (registry != null) {
+      registry.changed(oldValue, value);
+    }
+    if (transitions != null) {
+      transitions.changed(key, oldValue, value);
+    }
+  }
+
+  void attach(WeightLevelRegistry registry) {
+    if (this.registry != null) {
+      throw new IllegalStateException("Already registered: " + key);
+    }
+    this.registry = registry;
+  }
+
+  void detach(WeightLevelRegistry registry) {
+    if (this.registry != registry) {
+      throw new IllegalStateException("Not registered: " + key);
+    }
+    this.registry = null;
+  }
+
+  void attach(WhatToChangeLog changeLog) {
+    if (this.changeLog != null) {
+      throw new IllegalStateException("Already logged: " + key);
+    }
+    this.changeLog = changeLog;
+  }
+
+  void detach(WhatToChangeLog changeLog) {
+    if (this.changeLog != changeLog) {
+      throw new IllegalStateException("Not logged: " + key);
+    }
+    this.changeLog = null;
+  }
+
+  void attach(LevelTransitionRing transitions) {
+    if (this.transitions != null) {
+      throw new IllegalStateException("Already observed: " + key);
+    }
+    this.transitions = transitions;
+  }
+
+  void detach(LevelTransitionRing transitions) {
+    if (this.transitions != transitions) {
+      throw new IllegalStateException("Not observed: " + key);
+    }
+    this.transitions = null;
   }
 
   public WeightLevel getWeight() {
@@ -39,15 +149,38 @@ class UT02_WhatTo {
   }
 
   public static WeightLevel calculateWeightLevel(int weight) {
-    if (weight < 0) {
+    int ordinal = tryCalculateWeightLevel(weight);
+    if (ordinal < 0) {
       throw new IllegalArgumentException("Wrong!");
-    } else if (weight > 100) {
-      return HEAVY;
-    } else if (weight > 10) {
-      return MEDIUM;
-    } else {
-      return LIGHT;
     }
+    return WEIGHT_LEVELS[ordinal];
+  }
+
+  public static int tryCalculateWeightLevel(int weight) {
+    int ordinal = TierClassifier.WEIGHT_LEVELS.classify(weight);
+    if (ordinal < 0) {
+      InvalidInputCounter.WEIGHTS.increment();
+    }
+    return ordinal;
+  }
+
+  public static int weightLevelOrdinal(int weight) {
+    return (((MAX_LIGHT - weight) >>> 31) + ((MAX_MEDIUM - weight) >>> 31)) | ((weight - MIN_WEIGHT) >> 31);
+  }
+
+  public static WeightLevelHistogram calculateWeightLevels(int[] weights, byte[] levels) {
+    return calculateWeightLevels(weights, levels, PARALLEL_CLASSIFY_THRESHOLD);
+  }
+
+  public static WeightLevelHistogram calculateWeightLevels(int[] weights, byte[] levels, int parallelThreshold) {
+    if (levels.length < weights.length) {
+      throw new IllegalArgumentException("Output too small: " + levels.length + " < " + weights.length);
+    }
+    return new ClassifyTask(weights, levels, 0, weights.length, Math.max(1, parallelThreshold)).invoke();
+  }
+
+  public static WeightLevelHistogram calculateWeightLevels(IntStream weights) {
+    return weights.collect(WeightLevelHistogram::new, WeightLevelHistogram::accept, WeightLevelHistogram::merge);
   }
 
   public static List<Integer> reverseNumbers(Integer... numbers) {
@@ -61,4 +194,101 @@ class UT02_WhatTo {
     Collections.sort(l);
     return l;
   }
+
+  public static int[] reverseNumbers(int[] numbers) {
+    for (int i = 0, j = numbers.length - 1; i < j; i++, j--) {
+      int tmp = numbers[i];
+      numbers[i] = numbers[j];
+      numbers[j] = tmp;
+    }
+    return numbers;
+  }
+
+  public static IntBuffer reverseNumbers(IntBuffer numbers) {
+    for (int i = numbers.position(), j = numbers.limit() - 1; i < j; i++, j--) {
+      int tmp = numbers.get(i);
+      numbers.put(i, numbers.get(j));
+      numbers.put(j, tmp);
+    }
+    return numbers;
+  }
+
+  public static IntStream reversedView(int[] numbers) {
+    int last = numbers.length - 1;
+    return IntStream.rangeClosed(0, last).map(i -> numbers[last - i]);
+  }
+
+  public static int[] sortNumbers(int[] numbers) {
+    return sortNumbers(numbers, PARALLEL_SORT_THRESHOLD);
+  }
+
+  public static int[] sortNumbers(int[] numbers, int parallelThreshold) {
+    sortRange(numbers, 0, numbers.length, parallelThreshold);
+    return numbers;
+  }
+
+  public static long sortNumbers(ReadableByteChannel numbers, WritableByteChannel sorted) throws IOException {
+    return new ExternalIntSorter().sort(numbers, sorted);
+  }
+
+  public static IntBuffer sortNumbers(IntBuffer numbers) {
+    return sortNumbers(numbers, PARALLEL_SORT_THRESHOLD);
+  }
+
+  public static IntBuffer sortNumbers(IntBuffer numbers, int parallelThreshold) {
+    if (numbers.hasArray()) {
+      int from = numbers.arrayOffset() + numbers.position();
+      sortRange(numbers.array(), from, from + numbers.remaining(), parallelThreshold);
+    } else {
+      int[] copy = new int[numbers.remaining()];
+      numbers.duplicate().get(copy);
+      sortRange(copy, 0, copy.length, parallelThreshold);
+      numbers.duplicate().put(copy);
+    }
+    return numbers;
+  }
+
+  private static void sortRange(int[] numbers, int from, int to, int parallelThreshold) {
+    if (to - from >= parallelThreshold) {
+      Arrays.parallelSort(numbers, from, to);
+    } else {
+      Arrays.sort(numbers, from, to);
+    }
+  }
+
+  private static class ClassifyTask extends RecursiveTask<WeightLevelHistogram> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int[]  weights;
+    private final byte[] levels;
+    private final int    from;
+    private final int    to;
+    private final int    threshold;
+
+    ClassifyTask(int[] weights, byte[] levels, int from, int to, int threshold) {
+      this.weights = weights;
+      this.levels = levels;
+      this.from = from;
+      this.to = to;
+      this.threshold = threshold;
+    }
+
+    @Override
+    protected WeightLevelHistogram compute() {
+      if (to - from < threshold) {
+        WeightLevelHistogram histogram = new WeightLevelHistogram();
+        for (int i = from; i < to; i++) {
+          int ordinal = weightLevelOrdinal(weights[i]);
+          levels[i] = (byte) ordinal;
+          histogram.count(ordinal);
+        }
+        return histogram;
+      }
+      int middle = (from + to) >>> 1;
+      ClassifyTask right = new ClassifyTask(weights, levels, middle, to, threshold);
+      right.fork();
+      return new ClassifyTask(weights, levels, from, middle, threshold).compute().merge(right.join());
+    }
+  }
 }
@@ -1,6 +1,11 @@
 package de.mthix.junit5;
 
-import static de.mthix.junit5.UT03_UseTheRightToolsFor.Size.*;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 class UT03_UseTheRightToolsFor {
 
@@ -17,27 +22,143 @@ class UT03_UseTheRightToolsFor {
     Integer getStatus();
   }
 
+  public interface BatchActor extends Actor {
 
-  private int     actCounter;
-  private boolean acted;
-  private Actor   actor;
+    List<Integer> doSomething(int count);
+  }
+
+
+  public static final int DEFAULT_MAX_CONCURRENCY = 64;
+
+  private static final Size[] SIZES = Size.values();
+
+  private final    AtomicInteger actCounter = new AtomicInteger();
+  private volatile boolean       acted;
+  private          Actor         actor;
+  private          Executor      executor   = BoundedExecutor.virtualThreads(DEFAULT_MAX_CONCURRENCY);
+  private          ActorMetrics  metrics;
+  private          MicroBatcher  batcher;
+
+  public UT03_UseTheRightToolsFor() {
+  }
+
+  public UT03_UseTheRightToolsFor(Actor actor) {
+    this.actor = actor;
+  }
+
+  public static UT03_UseTheRightToolsFor pooled(List<Actor> actors, ActorPool.RoutingStrategy strategy) {
+    return new UT03_UseTheRightToolsFor(new ActorPool(actors, strategy));
+  }
+
+  public static UT03_UseTheRightToolsFor hedged(List<Actor> actors, Duration deadline) {
+    return new UT03_UseTheRightToolsFor(new HedgingActor(actors, deadline));
+  }
+
+  public static UT03_UseTheRightToolsFor batched(BatchActor actor, Duration window, int maxBatchSize) {
+    UT03_UseTheRightToolsFor ut03 = new UT03_UseTheRightToolsFor(actor);
+    ut03.setBatcher(new MicroBatcher(actor, window, maxBatchSize, MicroBatcher.DEFAULT_MAX_PENDING, MicroBatcher.Overflow.REJECT));
+    return ut03;
+  }
 
   public Integer act() {
-    acted = true;
-    actCounter++;
-    return actor.doSomething();
+    if (!acted) {
+      acted = true;
+    }
+    actCounter.incrementAndGet();
+    ActorMetrics metrics = this.metrics;
+    if (metrics == null) {
+      return call();
+    }
+    long start = System.nanoTime();
+    try {
+      Integer result = call();
+      metrics.recordSuccess(System.nanoTime() - start);
+      return result;
+    } catch (RuntimeException | Error e) {
+      metrics.recordFailure(System.nanoTime() - start);
+      throw e;
+    }
+  }
+
+  public CompletableFuture<Integer> actAsync() {
+    MicroBatcher batcher = this.batcher;
+    if (batcher == null) {
+      return CompletableFuture.supplyAsync(this::act, executor);
+    }
+    if (!acted) {
+      acted = true;
+    }
+    actCounter.incrementAndGet();
+    ActorMetrics metrics = this.metrics;
+    if (metrics == null) {
+      return batcher.submit();
+    }
+    long start = System.nanoTime();
+    return batcher.submit().whenComplete((result, failure) -> {
+      if (failure == null) {
+        metrics.recordSuccess(System.nanoTime() - start);
+      } else {
+        metrics.recordFailure(System.nanoTime() - start);
+      }
+    });
+  }
+
+  private Integer call() {
+    MicroBatcher batcher = this.batcher;
+    if (batcher == null) {
+      return actor.doSomething();
+    }
+    try {
+      return batcher.submit().join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  public void setExecutor(Executor executor) {
+    this.executor = executor;
+  }
+
+  public void setMetrics(ActorMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  public void setBatcher(MicroBatcher batcher) {
+    this.batcher = batcher;
+  }
+
+  public MicroBatcher getBatcher() {
+    return batcher;
+  }
+
+  public ActorMetrics getMetrics() {
+    return metrics;
+  }
+
+  public int getActCounter() {
+    return actCounter.get();
+  }
+
+  public boolean isActed() {
+    return acted;
   }
 
   public static Size convertSizeCode(String code) {
-    switch (String.valueOf(code)) {
-      case "s":
-        return SMALL;
-      case "m":
-        return MEDIUM;
-      case "l":
-        return LARGE;
-      default:
-        throw new IllegalArgumentException("Wrong code: " + code);
+    int ordinal = tryConvertSizeCode(code);
+    if (ordinal < 0) {
+      throw new IllegalArgumentException("Wrong code: " + code);
+    }
+    return SIZES[ordinal];
+  }
+
+  public static int tryConvertSizeCode(String code) {
+    int ordinal = code != null && code.length() == 1 ? SizeCodeDecoder.sizeOrdinal(code.charAt(0)) : SizeCodeDecoder.INVALID_SIZE;
+    if (ordinal < 0) {
+      InvalidInputCounter.SIZE_CODES.increment();
     }
+    return ordinal;
   }
 }
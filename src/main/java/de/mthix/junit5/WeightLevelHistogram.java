@@ -0,0 +1,57 @@
+package de.mthix.junit5;
+
+import de.mthix.junit5.UT02_WhatTo.WeightLevel;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+class WeightLevelHistogram {
+
+  private static final WeightLevel[] LEVELS = WeightLevel.values();
+
+  private final long[] counts = new long[LEVELS.length + 1];
+
+  void count(int ordinal) {
+    counts[ordinal + 1]++;
+  }
+
+  void accept(int weight) {
+    count(UT02_WhatTo.weightLevelOrdinal(weight));
+  }
+
+  WeightLevelHistogram merge(WeightLevelHistogram other) {
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] += other.counts[i];
+    }
+    return this;
+  }
+
+  public long get(WeightLevel level) {
+    return counts[level.ordinal() + 1];
+  }
+
+  public long getInvalid() {
+    return counts[0];
+  }
+
+  public long getTotal() {
+    long total = 0;
+    for (long count : counts) {
+      total += count;
+    }
+    return total;
+  }
+
+  public Map<WeightLevel, Long> toMap() {
+    Map<WeightLevel, Long> map = new EnumMap<>(WeightLevel.class);
+    for (WeightLevel level : LEVELS) {
+      map.put(level, get(level));
+    }
+    return map;
+  }
+
+  @Override
+  public String toString() {
+    return toMap() + ", invalid=" + getInvalid();
+  }
+}
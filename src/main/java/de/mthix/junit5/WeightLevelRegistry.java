@@ -0,0 +1,204 @@
+package de.mthix.junit5;
+
+import de.mthix.junit5.UT02_WhatTo.WeightLevel;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static de.mthix.junit5.UT02_WhatTo.weightLevelOrdinal;
+
+class WeightLevelRegistry {
+
+  public static final int DEFAULT_MAX_OPTIMISTIC_READS = 64;
+
+  private static final int  SLOTS         = WeightLevel.values().length + 1;
+  private static final int  STRIPES       = Integer.highestOneBit(Runtime.getRuntime().availableProcessors()) * 4;
+  private static final int  STRIDE        = 16;
+  private static final long WRITE_STARTED = (1L << 32) + 1;
+
+  private final LongAdder[]     counts   = new LongAdder[SLOTS];
+  private final LongAdder[]     sums     = new LongAdder[SLOTS];
+  private final AtomicLongArray versions = new AtomicLongArray(STRIPES * STRIDE);
+  private final ReentrantLock   writers  = new ReentrantLock();
+  private final LongAdder       blocking = new LongAdder();
+  private final int             maxOptimisticReads;
+  private volatile boolean      exclusive;
+
+  public WeightLevelRegistry() {
+    this(DEFAULT_MAX_OPTIMISTIC_READS);
+  }
+
+  WeightLevelRegistry(int maxOptimisticReads) {
+    if (maxOptimisticReads < 0) {
+      throw new IllegalArgumentException("Wrong max optimistic reads: " + maxOptimisticReads);
+    }
+    this.maxOptimisticReads = maxOptimisticReads;
+    for (int i = 0; i < SLOTS; i++) {
+      counts[i] = new LongAdder();
+      sums[i] = new LongAdder();
+    }
+  }
+
+  public void register(UT02_WhatTo record) {
+    record.attach(this);
+    int stripe = beginWrite();
+    try {
+      add(record.getValue(), 1);
+    } finally {
+      endWrite(stripe);
+    }
+  }
+
+  public void unregister(UT02_WhatTo record) {
+    record.detach(this);
+    int stripe = beginWrite();
+    try {
+      add(record.getValue(), -1);
+    } finally {
+      endWrite(stripe);
+    }
+  }
+
+  void changed(int oldValue, int newValue) {
+    int stripe = beginWrite();
+    try {
+      add(oldValue, -1);
+      add(newValue, 1);
+    } finally {
+      endWrite(stripe);
+    }
+  }
+
+  public long getCount(WeightLevel level) {
+    return counts[level.ordinal() + 1].sum();
+  }
+
+  public long getSum(WeightLevel level) {
+    return sums[level.ordinal() + 1].sum();
+  }
+
+  public long getInvalidCount() {
+    return counts[0].sum();
+  }
+
+  public Snapshot snapshot() {
+    long[] countValues = new long[SLOTS];
+    long[] sumValues = new long[SLOTS];
+    long[] before = new long[STRIPES];
+    for (int attempt = 0; attempt < maxOptimisticReads; attempt++) {
+      if (readVersions(before)) {
+        read(countValues, sumValues);
+        if (versionsUnchanged(before)) {
+          return new Snapshot(countValues, sumValues);
+        }
+      }
+      Thread.onSpinWait();
+    }
+    writers.lock();
+    try {
+      exclusive = true;
+      for (int i = 0; i < STRIPES; i++) {
+        while ((int) versions.get(i * STRIDE) != 0) {
+          Thread.onSpinWait();
+        }
+      }
+      read(countValues, sumValues);
+      blocking.increment();
+    } finally {
+      exclusive = false;
+      writers.unlock();
+    }
+    return new Snapshot(countValues, sumValues);
+  }
+
+  public long getBlockingSnapshots() {
+    return blocking.sum();
+  }
+
+  private void read(long[] countValues, long[] sumValues) {
+    for (int i = 0; i < SLOTS; i++) {
+      countValues[i] = counts[i].sum();
+      sumValues[i] = sums[i].sum();
+    }
+  }
+
+  private int beginWrite() {
+    long id = Thread.currentThread().getId();
+    int stripe = (int) ((id * 0x9E3779B97F4A7C15L) >>> 40) & (STRIPES - 1);
+    while (true) {
+      versions.addAndGet(stripe * STRIDE, WRITE_STARTED);
+      if (!exclusive) {
+        return stripe;
+      }
+      versions.decrementAndGet(stripe * STRIDE);
+      writers.lock();
+      writers.unlock();
+    }
+  }
+
+  private void endWrite(int stripe) {
+    versions.decrementAndGet(stripe * STRIDE);
+  }
+
+  private boolean readVersions(long[] before) {
+    for (int i = 0; i < STRIPES; i++) {
+      before[i] = versions.get(i * STRIDE);
+      if ((int) before[i] != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean versionsUnchanged(long[] before) {
+    for (int i = 0; i < STRIPES; i++) {
+      if (versions.get(i * STRIDE) != before[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void add(int value, int delta) {
+    int slot = weightLevelOrdinal(value) + 1;
+    counts[slot].add(delta);
+    sums[slot].add((long) value * delta);
+  }
+
+  public static class Snapshot {
+
+    private final long[] counts;
+    private final long[] sums;
+
+    Snapshot(long[] counts, long[] sums) {
+      this.counts = counts;
+      this.sums = sums;
+    }
+
+    public long getCount(WeightLevel level) {
+      return counts[level.ordinal() + 1];
+    }
+
+    public long getSum(WeightLevel level) {
+      return sums[level.ordinal() + 1];
+    }
+
+    public double getAverage(WeightLevel level) {
+      long count = getCount(level);
+      return count == 0 ? 0 : (double) getSum(level) / count;
+    }
+
+    public long getInvalidCount() {
+      return counts[0];
+    }
+
+    public long getTotal() {
+      long total = 0;
+      for (long count : counts) {
+        total += count;
+      }
+      return total;
+    }
+  }
+}
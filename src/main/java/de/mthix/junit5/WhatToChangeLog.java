@@ -0,0 +1,405 @@
+package de.mthix.junit5;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+class WhatToChangeLog implements Closeable {
+
+  public enum Durability {
+    PER_WRITE,
+    BATCHED,
+    ASYNC
+  }
+
+  public static final int      MAGIC                = 0x57544F4C;
+  public static final short    VERSION              = 1;
+  public static final int      HEADER_SIZE          = 8;
+  public static final int      RECORD_SIZE          = 12;
+  public static final long     DEFAULT_SEGMENT_SIZE = 64L << 20;
+  public static final Duration DEFAULT_BATCH_WINDOW = Duration.ofMillis(2);
+
+  private static final String PREFIX      = "changes-";
+  private static final String SUFFIX      = ".log";
+  private static final int    BUFFER_SIZE = 64 * 1024;
+
+  interface SegmentOpener {
+
+    FileChannel open(Path file) throws IOException;
+  }
+
+  private final Path          directory;
+  private final Durability    durability;
+  private final long          maxSegmentBytes;
+  private final long          batchWindowNanos;
+  private final SegmentOpener opener;
+  private final Object        io      = new Object();
+  private final CRC32C        crc     = new CRC32C();
+  private final ByteBuffer    scratch = ByteBuffer.allocate(2 * Integer.BYTES);
+  private final Thread        flusher;
+
+  private ByteBuffer  pending = ByteBuffer.allocateDirect(BUFFER_SIZE);
+  private ByteBuffer  spare   = ByteBuffer.allocateDirect(BUFFER_SIZE);
+  private FileChannel segment;
+  private long        segmentIndex;
+  private long        segmentSize;
+  private long        appended;
+  private long        durable;
+  private long        syncs;
+  private boolean     closed;
+  private IOException failure;
+
+  public WhatToChangeLog(Path directory, Durability durability) throws IOException {
+    this(directory, durability, DEFAULT_SEGMENT_SIZE, DEFAULT_BATCH_WINDOW);
+  }
+
+  WhatToChangeLog(Path directory, Durability durability, long maxSegmentBytes, Duration batchWindow) throws IOException {
+    this(directory, durability, maxSegmentBytes, batchWindow, file -> FileChannel.open(file, CREATE_NEW, WRITE));
+  }
+
+  WhatToChangeLog(Path directory, Durability durability, long maxSegmentBytes, Duration batchWindow, SegmentOpener opener) throws IOException {
+    if (maxSegmentBytes < HEADER_SIZE + RECORD_SIZE) {
+      throw new IllegalArgumentException("Wrong segment size: " + maxSegmentBytes);
+    }
+    this.directory = Files.createDirectories(directory);
+    this.durability = durability;
+    this.maxSegmentBytes = maxSegmentBytes;
+    this.batchWindowNanos = batchWindow.toNanos();
+    this.opener = opener;
+    List<Path> segments = segments(directory);
+    this.segmentIndex = segments.isEmpty() ? 0 : segmentIndex(segments.get(segments.size() - 1)) + 1;
+    openSegment();
+    if (durability == Durability.PER_WRITE) {
+      this.flusher = null;
+    } else {
+      this.flusher = new Thread(this::flushPeriodically, "what-to-change-log");
+      this.flusher.setDaemon(true);
+      this.flusher.start();
+    }
+  }
+
+  public void register(UT02_WhatTo record) {
+    record.attach(this);
+  }
+
+  public void unregister(UT02_WhatTo record) {
+    record.detach(this);
+  }
+
+  public void append(int key, int value) throws IOException {
+    if (durability == Durability.PER_WRITE) {
+      synchronized (io) {
+        synchronized (this) {
+          checkOpen();
+          put(key, value);
+          appended++;
+        }
+        sync();
+      }
+      return;
+    }
+    long sequence;
+    while (true) {
+      synchronized (this) {
+        checkOpen();
+        if (pending.remaining() >= RECORD_SIZE) {
+          put(key, value);
+          sequence = ++appended;
+          break;
+        }
+      }
+      synchronized (io) {
+        sync();
+      }
+    }
+    if (durability == Durability.BATCHED) {
+      synchronized (this) {
+        while (durable < sequence) {
+          checkFailure();
+          await();
+        }
+      }
+    }
+  }
+
+  public void flush() throws IOException {
+    synchronized (io) {
+      sync();
+    }
+  }
+
+  public void checkpoint(Path snapshotFile, WhatToColumns columns) throws IOException {
+    long firstKept;
+    synchronized (io) {
+      sync();
+      try {
+        roll();
+      } catch (IOException e) {
+        fail(e);
+        throw e;
+      }
+      firstKept = segmentIndex;
+    }
+    WhatToSnapshot.write(snapshotFile, columns);
+    for (Path file : segments(directory)) {
+      if (segmentIndex(file) < firstKept) {
+        Files.deleteIfExists(file);
+      }
+    }
+  }
+
+  public synchronized long getAppended() {
+    return appended;
+  }
+
+  public synchronized long getDurable() {
+    return durable;
+  }
+
+  public synchronized long getSyncs() {
+    return syncs;
+  }
+
+  public int getSegmentCount() throws IOException {
+    return segments(directory).size();
+  }
+
+  @Override
+  public void close() throws IOException {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      notifyAll();
+    }
+    if (flusher != null) {
+      LockSupport.unpark(flusher);
+      try {
+        flusher.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    synchronized (io) {
+      try {
+        sync();
+      } finally {
+        segment.close();
+      }
+    }
+  }
+
+  public static Recovery recover(Path snapshotFile, Path directory) throws IOException {
+    WhatToColumns columns = Files.exists(snapshotFile) ? WhatToSnapshot.open(snapshotFile).toColumns() : new WhatToColumns(16);
+    IntIntIndex index = columns.indexByKey();
+    CRC32C crc = new CRC32C();
+    long replayed = 0;
+    long discarded = 0;
+    for (Path file : Files.isDirectory(directory) ? segments(directory) : List.<Path>of()) {
+      try (FileChannel channel = FileChannel.open(file, READ)) {
+        long size = channel.size();
+        long valid = 0;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        read(channel, buffer);
+        if (buffer.remaining() >= HEADER_SIZE && buffer.getInt() == MAGIC && buffer.getShort() == VERSION) {
+          buffer.getShort();
+          valid = HEADER_SIZE;
+          while (true) {
+            if (buffer.remaining() < RECORD_SIZE) {
+              buffer.compact();
+              read(channel, buffer);
+              if (buffer.remaining() < RECORD_SIZE) {
+                break;
+              }
+            }
+            int key = buffer.getInt();
+            int value = buffer.getInt();
+            crc.reset();
+            crc.update(buffer.duplicate().position(buffer.position() - 2 * Integer.BYTES).limit(buffer.position()));
+            if ((int) crc.getValue() != buffer.getInt()) {
+              break;
+            }
+            int row = index.get(key, -1);
+            if (row < 0) {
+              index.put(key, columns.append(key, value));
+            } else {
+              columns.setValue(row, value);
+            }
+            replayed++;
+            valid += RECORD_SIZE;
+          }
+        }
+        discarded += size - valid;
+      }
+    }
+    return new Recovery(columns, replayed, discarded);
+  }
+
+  private void put(int key, int value) {
+    scratch.clear();
+    scratch.putInt(key).putInt(value).flip();
+    crc.reset();
+    crc.update(scratch);
+    pending.putInt(key).putInt(value).putInt((int) crc.getValue());
+  }
+
+  private void flushPeriodically() {
+    while (true) {
+      synchronized (this) {
+        if (closed) {
+          return;
+        }
+      }
+      LockSupport.parkNanos(batchWindowNanos);
+      synchronized (io) {
+        try {
+          sync();
+        } catch (IOException e) {
+          return;
+        }
+      }
+    }
+  }
+
+  private void sync() throws IOException {
+    ByteBuffer batch;
+    long sequence;
+    synchronized (this) {
+      if (failure != null) {
+        throw failure;
+      }
+      if (pending.position() == 0) {
+        return;
+      }
+      batch = pending;
+      pending = spare;
+      spare = batch;
+      sequence = appended;
+      notifyAll();
+    }
+    try {
+      batch.flip();
+      segmentSize += batch.remaining();
+      while (batch.hasRemaining()) {
+        segment.write(batch);
+      }
+      batch.clear();
+      segment.force(false);
+      synchronized (this) {
+        durable = sequence;
+        syncs++;
+        notifyAll();
+      }
+      if (segmentSize >= maxSegmentBytes) {
+        roll();
+      }
+    } catch (IOException e) {
+      fail(e);
+      throw e;
+    }
+  }
+
+  private synchronized void fail(IOException e) {
+    if (failure == null) {
+      failure = e;
+    }
+    notifyAll();
+  }
+
+  private void roll() throws IOException {
+    segment.close();
+    segmentIndex++;
+    openSegment();
+  }
+
+  private void openSegment() throws IOException {
+    segment = opener.open(directory.resolve(String.format("%s%020d%s", PREFIX, segmentIndex, SUFFIX)));
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putShort(VERSION).putShort((short) 0).flip();
+    while (header.hasRemaining()) {
+      segment.write(header);
+    }
+    segment.force(true);
+    segmentSize = HEADER_SIZE;
+  }
+
+  private void await() throws IOException {
+    try {
+      wait();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for group commit");
+    }
+  }
+
+  private void checkOpen() throws IOException {
+    if (closed) {
+      throw new IOException("Closed: " + directory);
+    }
+    checkFailure();
+  }
+
+  private void checkFailure() throws IOException {
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private static List<Path> segments(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(file -> file.getFileName().toString().startsWith(PREFIX) && file.getFileName().toString().endsWith(SUFFIX))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+  }
+
+  private static long segmentIndex(Path file) {
+    String name = file.getFileName().toString();
+    return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+  }
+
+  private static void read(FileChannel channel, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+    }
+    buffer.flip();
+  }
+
+  public static class Recovery {
+
+    private final WhatToColumns columns;
+    private final long          replayed;
+    private final long          discardedBytes;
+
+    Recovery(WhatToColumns columns, long replayed, long discardedBytes) {
+      this.columns = columns;
+      this.replayed = replayed;
+      this.discardedBytes = discardedBytes;
+    }
+
+    public WhatToColumns getColumns() {
+      return columns;
+    }
+
+    public long getReplayed() {
+      return replayed;
+    }
+
+    public long getDiscardedBytes() {
+      return discardedBytes;
+    }
+  }
+}
@@ -0,0 +1,200 @@
+package de.mthix.junit5;
+
+import de.mthix.junit5.UT02_WhatTo.WeightLevel;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.RecursiveTask;
+
+import static de.mthix.junit5.UT02_WhatTo.weightLevelOrdinal;
+
+class WhatToColumns {
+
+  public static final int PARALLEL_SCAN_THRESHOLD = 1 << 16;
+  public static final int MAX_HEAP_CAPACITY       = Integer.MAX_VALUE - 8;
+  public static final int MAX_OFF_HEAP_CAPACITY   = Integer.MAX_VALUE / Integer.BYTES;
+
+  private final boolean offHeap;
+  private final int     parallelThreshold;
+
+  private IntBuffer keys;
+  private IntBuffer values;
+  private int       size;
+
+  public WhatToColumns(int initialCapacity) {
+    this(initialCapacity, false, PARALLEL_SCAN_THRESHOLD);
+  }
+
+  WhatToColumns(int initialCapacity, boolean offHeap, int parallelThreshold) {
+    if (initialCapacity < 0 || initialCapacity > maxCapacity(offHeap)) {
+      throw new IllegalArgumentException("Wrong capacity: " + initialCapacity);
+    }
+    this.offHeap = offHeap;
+    this.parallelThreshold = Math.max(1, parallelThreshold);
+    this.keys = allocate(initialCapacity);
+    this.values = allocate(initialCapacity);
+  }
+
+  public static WhatToColumns offHeap(int initialCapacity) {
+    return new WhatToColumns(initialCapacity, true, PARALLEL_SCAN_THRESHOLD);
+  }
+
+  public int append(int key, int value) {
+    if (size == keys.capacity()) {
+      int capacity = grownCapacity(size, maxCapacity(offHeap));
+      keys = copy(keys, capacity);
+      values = copy(values, capacity);
+    }
+    keys.put(size, key);
+    values.put(size, value);
+    return size++;
+  }
+
+  public int append(UT02_WhatTo record) {
+    return append(record.getKey(), record.getValue());
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isOffHeap() {
+    return offHeap;
+  }
+
+  public int getKey(int index) {
+    return keys.get(Objects.checkIndex(index, size));
+  }
+
+  public int getValue(int index) {
+    return values.get(Objects.checkIndex(index, size));
+  }
+
+  public void setValue(int index, int value) {
+    values.put(Objects.checkIndex(index, size), value);
+  }
+
+  public WeightLevel getWeight(int index) {
+    return UT02_WhatTo.calculateWeightLevel(getValue(index));
+  }
+
+  public UT02_WhatTo get(int index) {
+    return new UT02_WhatTo(getKey(index), getValue(index));
+  }
+
+  public IntIntIndex indexByKey() {
+    IntIntIndex index = new IntIntIndex(size);
+    for (int i = 0; i < size; i++) {
+      index.put(keys.get(i), i);
+    }
+    return index;
+  }
+
+  public int[] indicesOf(WeightLevel level) {
+    return new IndicesTask(values, level.ordinal(), 0, size, parallelThreshold).invoke();
+  }
+
+  public WeightLevelHistogram countByWeight() {
+    return new CountTask(values, 0, size, parallelThreshold).invoke();
+  }
+
+  static int grownCapacity(int capacity, int maxCapacity) {
+    if (capacity >= maxCapacity) {
+      throw new IllegalStateException("Capacity exhausted: " + maxCapacity);
+    }
+    return (int) Math.min(maxCapacity, Math.max(16, capacity + (long) (capacity >> 1)));
+  }
+
+  private static int maxCapacity(boolean offHeap) {
+    return offHeap ? MAX_OFF_HEAP_CAPACITY : MAX_HEAP_CAPACITY;
+  }
+
+  private IntBuffer allocate(int capacity) {
+    if (offHeap) {
+      return ByteBuffer.allocateDirect(capacity * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+    return IntBuffer.allocate(capacity);
+  }
+
+  private IntBuffer copy(IntBuffer column, int capacity) {
+    IntBuffer copy = allocate(capacity);
+    copy.put(column.duplicate().limit(size));
+    copy.clear();
+    return copy;
+  }
+
+  private static class IndicesTask extends RecursiveTask<int[]> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final IntBuffer values;
+    private final int       ordinal;
+    private final int       from;
+    private final int       to;
+    private final int       threshold;
+
+    IndicesTask(IntBuffer values, int ordinal, int from, int to, int threshold) {
+      this.values = values;
+      this.ordinal = ordinal;
+      this.from = from;
+      this.to = to;
+      this.threshold = threshold;
+    }
+
+    @Override
+    protected int[] compute() {
+      if (to - from < threshold) {
+        int[] indices = new int[to - from];
+        int found = 0;
+        for (int i = from; i < to; i++) {
+          indices[found] = i;
+          found += weightLevelOrdinal(values.get(i)) == ordinal ? 1 : 0;
+        }
+        return Arrays.copyOf(indices, found);
+      }
+      int middle = (from + to) >>> 1;
+      IndicesTask right = new IndicesTask(values, ordinal, middle, to, threshold);
+      right.fork();
+      int[] leftIndices = new IndicesTask(values, ordinal, from, middle, threshold).compute();
+      int[] rightIndices = right.join();
+      int[] indices = Arrays.copyOf(leftIndices, leftIndices.length + rightIndices.length);
+      System.arraycopy(rightIndices, 0, indices, leftIndices.length, rightIndices.length);
+      return indices;
+    }
+  }
+
+  private static class CountTask extends RecursiveTask<WeightLevelHistogram> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final IntBuffer values;
+    private final int       from;
+    private final int       to;
+    private final int       threshold;
+
+    CountTask(IntBuffer values, int from, int to, int threshold) {
+      this.values = values;
+      this.from = from;
+      this.to = to;
+      this.threshold = threshold;
+    }
+
+    @Override
+    protected WeightLevelHistogram compute() {
+      if (to - from < threshold) {
+        WeightLevelHistogram histogram = new WeightLevelHistogram();
+        for (int i = from; i < to; i++) {
+          histogram.count(weightLevelOrdinal(values.get(i)));
+        }
+        return histogram;
+      }
+      int middle = (from + to) >>> 1;
+      CountTask right = new CountTask(values, middle, to, threshold);
+      right.fork();
+      return new CountTask(values, from, middle, threshold).compute().merge(right.join());
+    }
+  }
+}
@@ -0,0 +1,140 @@
+package de.mthix.junit5;
+
+import de.mthix.junit5.UT02_WhatTo.WeightLevel;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.function.IntUnaryOperator;
+import java.util.zip.CRC32C;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+class WhatToSnapshot {
+
+  public static final int   MAGIC       = 0x57544F53;
+  public static final short VERSION     = 1;
+  public static final int   HEADER_SIZE = 24;
+  public static final int   RECORD_SIZE = 8;
+
+  private static final int  BUFFER_SIZE = 64 * 1024;
+  private static final long MAX_RECORDS = (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE;
+
+  private final MappedByteBuffer buffer;
+  private final int              size;
+  private final long             checksum;
+
+  private WhatToSnapshot(MappedByteBuffer buffer, int size, long checksum) {
+    this.buffer = buffer;
+    this.size = size;
+    this.checksum = checksum;
+  }
+
+  public static void write(Path file, WhatToColumns columns) throws IOException {
+    write(file, columns.size(), columns::getKey, columns::getValue);
+  }
+
+  public static void write(Path file, int[] keys, int[] values) throws IOException {
+    if (keys.length != values.length) {
+      throw new IllegalArgumentException("Wrong lengths: " + keys.length + " keys, " + values.length + " values");
+    }
+    write(file, keys.length, i -> keys[i], i -> values[i]);
+  }
+
+  private static void write(Path file, int size, IntUnaryOperator keys, IntUnaryOperator values) throws IOException {
+    Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+    try (FileChannel channel = FileChannel.open(temp, CREATE, WRITE, TRUNCATE_EXISTING)) {
+      CRC32C crc = new CRC32C();
+      ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+      channel.position(HEADER_SIZE);
+      for (int i = 0; i < size; i++) {
+        if (buffer.remaining() < RECORD_SIZE) {
+          flush(channel, buffer, crc);
+        }
+        buffer.putInt(keys.applyAsInt(i)).putInt(values.applyAsInt(i));
+      }
+      flush(channel, buffer, crc);
+      buffer.putInt(MAGIC).putShort(VERSION).putShort((short) 0).putLong(size).putLong(crc.getValue()).flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer, buffer.position());
+      }
+      channel.force(true);
+    } catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(temp);
+      throw e;
+    }
+    Files.move(temp, file, REPLACE_EXISTING, ATOMIC_MOVE);
+  }
+
+  public static WhatToSnapshot open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, READ)) {
+      long fileSize = channel.size();
+      if (fileSize < HEADER_SIZE) {
+        throw new IOException("Truncated header: " + file);
+      }
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(fileSize, Integer.MAX_VALUE));
+      int magic = buffer.getInt(0);
+      if (magic != MAGIC) {
+        throw new IOException("Wrong magic: " + Integer.toHexString(magic));
+      }
+      short version = buffer.getShort(4);
+      if (version != VERSION) {
+        throw new IOException("Wrong version: " + version);
+      }
+      long size = buffer.getLong(8);
+      if (size < 0 || size > MAX_RECORDS || fileSize != HEADER_SIZE + size * RECORD_SIZE) {
+        throw new IOException("Wrong record count " + size + " for file size " + fileSize);
+      }
+      return new WhatToSnapshot(buffer, (int) size, buffer.getLong(16));
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public int getKey(int index) {
+    return buffer.getInt(HEADER_SIZE + Objects.checkIndex(index, size) * RECORD_SIZE);
+  }
+
+  public int getValue(int index) {
+    return buffer.getInt(HEADER_SIZE + Objects.checkIndex(index, size) * RECORD_SIZE + Integer.BYTES);
+  }
+
+  public WeightLevel getWeight(int index) {
+    return UT02_WhatTo.calculateWeightLevel(getValue(index));
+  }
+
+  public boolean isChecksumValid() {
+    CRC32C crc = new CRC32C();
+    crc.update(buffer.duplicate().position(HEADER_SIZE).limit(HEADER_SIZE + size * RECORD_SIZE));
+    return crc.getValue() == checksum;
+  }
+
+  public WhatToColumns toColumns() {
+    WhatToColumns columns = new WhatToColumns(size);
+    for (int i = 0; i < size; i++) {
+      int offset = HEADER_SIZE + i * RECORD_SIZE;
+      columns.append(buffer.getInt(offset), buffer.getInt(offset + Integer.BYTES));
+    }
+    return columns;
+  }
+
+  private static void flush(FileChannel channel, ByteBuffer buffer, CRC32C crc) throws IOException {
+    buffer.flip();
+    crc.update(buffer.duplicate());
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+}
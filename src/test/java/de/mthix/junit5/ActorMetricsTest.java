@@ -0,0 +1,34 @@
+package de.mthix.junit5;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ActorMetricsTest {
+
+  private ActorMetrics metrics;
+
+  @BeforeEach
+  void recordCalls() {
+    metrics = new ActorMetrics();
+    metrics.recordSuccess(100);
+    metrics.recordSuccess(200);
+    metrics.recordFailure(5_000);
+  }
+
+  @Test
+  void calls() {
+    assertThat(metrics.getCalls()).isEqualTo(3);
+  }
+
+  @Test
+  void failures() {
+    assertThat(metrics.getFailures()).isEqualTo(1);
+  }
+
+  @Test
+  void latency() {
+    assertThat(metrics.getLatency().getCount()).isEqualTo(3);
+  }
+}
@@ -0,0 +1,197 @@
+package de.mthix.junit5;
+
+import de.mthix.junit5.UT03_UseTheRightToolsFor.Actor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ActorPoolTest {
+
+  private static final Duration EJECTION = Duration.ofSeconds(10);
+
+  @Mock
+  private Actor first;
+  @Mock
+  private Actor second;
+
+  private final AtomicLong nanoClock = new AtomicLong();
+
+  private ActorPool pool(ActorPool.RoutingStrategy strategy) {
+    return new ActorPool(asList(first, second), strategy, 2, EJECTION, nanoClock::get);
+  }
+
+  @Test
+  void noActors() {
+    assertThatThrownBy(() -> new ActorPool(emptyList(), ActorPool.roundRobin())).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Nested
+  class RoundRobin {
+
+    @BeforeEach
+    void actFourTimes() {
+      ActorPool pool = pool(ActorPool.roundRobin());
+      for (int i = 0; i < 4; i++) {
+        pool.doSomething();
+      }
+    }
+
+    @Test
+    void first() {
+      verify(first, times(2)).doSomething();
+    }
+
+    @Test
+    void second() {
+      verify(second, times(2)).doSomething();
+    }
+  }
+
+  @Nested
+  class PowerOfTwoChoices {
+
+    private ActorPool pool;
+
+    @BeforeEach
+    void reenterFromFirst() {
+      pool = pool(ActorPool.powerOfTwoChoices());
+      when(first.doSomething()).thenAnswer(invocation -> pool.doSomething());
+      when(second.doSomething()).thenReturn(2);
+    }
+
+    @Test
+    void preferredFewerOutstanding() {
+      assertThat(pool.doSomething()).isEqualTo(2);
+    }
+
+    @Test
+    void statusNotQueried() {
+      pool.doSomething();
+
+      verify(second, never()).getStatus();
+    }
+  }
+
+  @Test
+  void leastOutstanding() {
+    ActorPool pool = pool(ActorPool.leastOutstanding());
+    when(first.doSomething()).thenAnswer(invocation -> pool.doSomething());
+    when(second.doSomething()).thenReturn(2);
+
+    assertThat(pool.doSomething()).isEqualTo(2);
+  }
+
+  @Nested
+  class Ejection {
+
+    private ActorPool pool;
+
+    @BeforeEach
+    void failFirstTwice() {
+      when(first.doSomething()).thenThrow(new IllegalStateException("down"));
+      when(second.doSomething()).thenReturn(2);
+      pool = pool(new FirstAvailable());
+      for (int i = 0; i < 2; i++) {
+        assertThatThrownBy(pool::doSomething).isInstanceOf(IllegalStateException.class);
+      }
+    }
+
+    @Test
+    void ejected() {
+      assertThat(pool.getAvailable()).isEqualTo(1);
+    }
+
+    @Test
+    void routedAround() {
+      assertThat(pool.doSomething()).isEqualTo(2);
+    }
+
+    @Test
+    void readmittedAfterEjection() {
+      nanoClock.addAndGet(EJECTION.toNanos());
+
+      assertThat(pool.getAvailable()).isEqualTo(2);
+    }
+
+    @Test
+    void failuresResetOnReadmission() {
+      nanoClock.addAndGet(EJECTION.toNanos());
+      assertThatThrownBy(pool::doSomething).isInstanceOf(IllegalStateException.class);
+
+      assertThat(pool.getAvailable()).isEqualTo(2);
+    }
+
+    @Test
+    void ejectedAgainAfterThresholdFailures() {
+      nanoClock.addAndGet(EJECTION.toNanos());
+      for (int i = 0; i < 2; i++) {
+        assertThatThrownBy(pool::doSomething).isInstanceOf(IllegalStateException.class);
+      }
+
+      assertThat(pool.getAvailable()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  void panicWhenAllEjected() {
+    when(first.doSomething()).thenReturn(1);
+    ActorPool pool = pool((members, now) -> -1);
+
+    assertThat(pool.doSomething()).isEqualTo(1);
+  }
+
+  @Test
+  void doSomethingElseBroadcast() {
+    pool(ActorPool.roundRobin()).doSomethingElse();
+
+    verify(second).doSomethingElse();
+  }
+
+  @Test
+  void getStatusSummed() {
+    when(first.getStatus()).thenReturn(3);
+    when(second.getStatus()).thenReturn(4);
+
+    assertThat(pool(ActorPool.roundRobin()).getStatus()).isEqualTo(7);
+  }
+
+  @Test
+  void pooledUseTheRightToolsFor() {
+    when(first.doSomething()).thenReturn(5);
+
+    assertThat(UT03_UseTheRightToolsFor.pooled(List.of(first), ActorPool.roundRobin()).act()).isEqualTo(5);
+  }
+
+  private static class FirstAvailable implements ActorPool.RoutingStrategy {
+
+    @Override
+    public int select(ActorPool.Member[] members, long now) {
+      for (int i = 0; i < members.length; i++) {
+        if (members[i].isAvailable(now)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+  }
+}
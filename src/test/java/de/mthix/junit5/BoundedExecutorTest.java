@@ -0,0 +1,183 @@
+package de.mthix.junit5;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BoundedExecutorTest {
+
+  private ExecutorService delegate;
+  private BoundedExecutor boundedExecutor;
+
+  @BeforeEach
+  void initBoundedExecutor() {
+    delegate = Executors.newFixedThreadPool(8);
+    boundedExecutor = new BoundedExecutor(delegate, 2);
+  }
+
+  @AfterEach
+  void shutdownDelegate() {
+    delegate.shutdownNow();
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {Integer.MIN_VALUE, 0})
+  void invalidMaxConcurrency(int maxConcurrency) {
+    assertThatThrownBy(() -> new BoundedExecutor(delegate, maxConcurrency)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Nested
+  class Execute {
+
+    private final int           tasks    = 40;
+    private final AtomicInteger current  = new AtomicInteger();
+    private final AtomicInteger peak     = new AtomicInteger();
+    private final AtomicInteger executed = new AtomicInteger();
+
+    @BeforeEach
+    void executeTasks() throws InterruptedException {
+      CountDownLatch done = new CountDownLatch(tasks);
+      for (int i = 0; i < tasks; i++) {
+        boundedExecutor.execute(() -> {
+          peak.accumulateAndGet(current.incrementAndGet(), Math::max);
+          sleepBriefly();
+          current.decrementAndGet();
+          executed.incrementAndGet();
+          done.countDown();
+        });
+      }
+      done.await(10, SECONDS);
+    }
+
+    @Test
+    void limitedConcurrency() {
+      assertThat(peak.get()).isBetween(1, 2);
+    }
+
+    @Test
+    void executedAll() {
+      assertThat(executed.get()).isEqualTo(tasks);
+    }
+  }
+
+  @Nested
+  class Rejected {
+
+    @BeforeEach
+    void shutdownDelegate() {
+      delegate.shutdown();
+    }
+
+    @Test
+    void rethrown() {
+      assertThatThrownBy(() -> boundedExecutor.execute(() -> {})).isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    void releasedPermit() {
+      try {
+        boundedExecutor.execute(() -> {});
+      } catch (RejectedExecutionException expected) {
+        // permit must be returned anyway
+      }
+
+      assertThat(boundedExecutor.getRunning()).isZero();
+    }
+  }
+
+  @Nested
+  class RejectedWhileQueued {
+
+    private final AtomicBoolean  accepting  = new AtomicBoolean(true);
+    private final AtomicInteger  rejections = new AtomicInteger();
+    private final CountDownLatch executed   = new CountDownLatch(2);
+    private BoundedExecutor      flaky;
+
+    @BeforeEach
+    void rejectQueuedTask() throws InterruptedException {
+      flaky = new BoundedExecutor(task -> {
+        if (!accepting.get()) {
+          rejections.incrementAndGet();
+          throw new RejectedExecutionException("Not accepting");
+        }
+        delegate.execute(task);
+      }, 1);
+      CountDownLatch release = new CountDownLatch(1);
+      flaky.execute(() -> awaitQuietly(release));
+      flaky.execute(executed::countDown);
+      accepting.set(false);
+      release.countDown();
+      while (rejections.get() == 0 || flaky.getPending() == 0) {
+        Thread.sleep(1);
+      }
+    }
+
+    @Test
+    void requeued() {
+      assertThat(flaky.getPending()).isEqualTo(1);
+    }
+
+    @Test
+    void rethrownToSubmitter() {
+      assertThatThrownBy(() -> flaky.execute(executed::countDown)).isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    void submittedTaskNotQueued() {
+      try {
+        flaky.execute(executed::countDown);
+      } catch (RejectedExecutionException expected) {
+        // only the requeued task stays pending
+      }
+
+      assertThat(flaky.getPending()).isEqualTo(1);
+    }
+
+    @Test
+    void runsOnceAccepted() throws InterruptedException {
+      accepting.set(true);
+      flaky.execute(executed::countDown);
+
+      assertThat(executed.await(10, SECONDS)).isTrue();
+    }
+  }
+
+  @Test
+  void virtualThreads() throws InterruptedException {
+    CountDownLatch executed = new CountDownLatch(1);
+
+    BoundedExecutor.virtualThreads(1).execute(executed::countDown);
+
+    assertThat(executed.await(5, SECONDS)).isTrue();
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(10, SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void sleepBriefly() {
+    try {
+      Thread.sleep(2);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,203 @@
+package de.mthix.junit5;
+
+import de.mthix.junit5.UT03_UseTheRightToolsFor.Actor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CachingActorTest {
+
+  private static final Duration TTL           = Duration.ofSeconds(10);
+  private static final Duration REFRESH_AHEAD = Duration.ofSeconds(8);
+
+  @Mock
+  private Actor mockActor;
+
+  private final AtomicLong nanoClock = new AtomicLong(1_000);
+
+  private CachingActor cachingActor;
+
+  @BeforeEach
+  void initCachingActor() {
+    cachingActor = new CachingActor(mockActor, TTL, REFRESH_AHEAD, Runnable::run, nanoClock::get);
+  }
+
+  @Test
+  void invalidTtl() {
+    assertThatThrownBy(() -> new CachingActor(mockActor, Duration.ZERO, REFRESH_AHEAD)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Nested
+  class GetStatus {
+
+    @Nested
+    class WithinTtl {
+
+      private Integer status;
+
+      @BeforeEach
+      void getTwice() {
+        when(mockActor.getStatus()).thenReturn(4);
+        cachingActor.getStatus();
+        nanoClock.addAndGet(Duration.ofSeconds(5).toNanos());
+
+        status = cachingActor.getStatus();
+      }
+
+      @Test
+      void cached() {
+        assertThat(status).isEqualTo(4);
+      }
+
+      @Test
+      void loadedOnce() {
+        verify(mockActor, times(1)).getStatus();
+      }
+
+      @Test
+      void hitRate() {
+        assertThat(cachingActor.getHitRate()).isEqualTo(0.5);
+      }
+    }
+
+    @Nested
+    class RefreshAhead {
+
+      private Integer status;
+
+      @BeforeEach
+      void getWithinRefreshWindow() {
+        when(mockActor.getStatus()).thenReturn(4, 6);
+        cachingActor.getStatus();
+        nanoClock.addAndGet(Duration.ofSeconds(9).toNanos());
+
+        status = cachingActor.getStatus();
+      }
+
+      @Test
+      void servedCachedValue() {
+        assertThat(status).isEqualTo(4);
+      }
+
+      @Test
+      void refreshed() {
+        assertThat(cachingActor.getStatus()).isEqualTo(6);
+      }
+    }
+
+    @Nested
+    class Expired {
+
+      @BeforeEach
+      void expire() {
+        when(mockActor.getStatus()).thenReturn(4, 7);
+        cachingActor.getStatus();
+        nanoClock.addAndGet(TTL.toNanos());
+      }
+
+      @Test
+      void reloaded() {
+        assertThat(cachingActor.getStatus()).isEqualTo(7);
+      }
+
+      @Test
+      void countedMiss() {
+        cachingActor.getStatus();
+
+        assertThat(cachingActor.getMisses()).isEqualTo(2);
+      }
+    }
+
+    @Nested
+    class Failing {
+
+      @BeforeEach
+      void failLoading() {
+        when(mockActor.getStatus()).thenThrow(new IllegalStateException("down"));
+      }
+
+      @Test
+      void rethrown() {
+        assertThatThrownBy(() -> cachingActor.getStatus()).isInstanceOf(IllegalStateException.class);
+      }
+
+      @Test
+      void countedFailure() {
+        assertThatThrownBy(() -> cachingActor.getStatus()).hasMessage("down");
+
+        assertThat(cachingActor.getLoadFailures()).isEqualTo(1);
+      }
+    }
+
+    @Test
+    void collapsedConcurrentMisses() throws Exception {
+      CountDownLatch release = new CountDownLatch(1);
+      when(mockActor.getStatus()).thenAnswer(invocation -> {
+        release.await(5, SECONDS);
+        return 5;
+      });
+      ExecutorService executor = Executors.newFixedThreadPool(8);
+      List<Future<Integer>> statuses = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        statuses.add(executor.submit(cachingActor::getStatus));
+      }
+      Thread.sleep(50);
+      release.countDown();
+      for (Future<Integer> status : statuses) {
+        status.get(5, SECONDS);
+      }
+      executor.shutdown();
+
+      verify(mockActor, times(1)).getStatus();
+    }
+  }
+
+  @Nested
+  class DoSomethingElse {
+
+    @BeforeEach
+    void cacheThenDoSomethingElse() {
+      when(mockActor.getStatus()).thenReturn(4, 8);
+      cachingActor.getStatus();
+
+      cachingActor.doSomethingElse();
+    }
+
+    @Test
+    void delegated() {
+      verify(mockActor).doSomethingElse();
+    }
+
+    @Test
+    void invalidated() {
+      assertThat(cachingActor.getStatus()).isEqualTo(8);
+    }
+  }
+
+  @Test
+  void doSomething() {
+    when(mockActor.doSomething()).thenReturn(2);
+
+    assertThat(cachingActor.doSomething()).isEqualTo(2);
+  }
+}
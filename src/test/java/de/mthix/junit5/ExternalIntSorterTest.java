@@ -0,0 +1,240 @@
+package de.mthix.junit5;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ExternalIntSorterTest {
+
+  @TempDir
+  Path tempDir;
+
+  private int[] numbers;
+  private int[] expected;
+
+  @BeforeEach
+  void initNumbers() {
+    numbers = new Random(42).ints(10_000).toArray();
+    expected = numbers.clone();
+    Arrays.sort(expected);
+  }
+
+  private ExternalIntSorter sorter(long memoryBudget) {
+    return sorter(memoryBudget, ExternalIntSorter.DEFAULT_MAX_FAN_IN);
+  }
+
+  private ExternalIntSorter sorter(long memoryBudget, int maxFanIn) {
+    return new ExternalIntSorter(memoryBudget, tempDir, 4, maxFanIn, ForkJoinPool.commonPool());
+  }
+
+  private static int[] drain(ExternalIntSorter.SortedInts sorted) throws IOException {
+    try (sorted) {
+      IntStream.Builder builder = IntStream.builder();
+      sorted.forEachRemaining((int value) -> builder.add(value));
+      return builder.build().toArray();
+    }
+  }
+
+  private static byte[] toBytes(int[] values) {
+    ByteBuffer buffer = ByteBuffer.allocate(values.length * Integer.BYTES);
+    buffer.asIntBuffer().put(values);
+    return buffer.array();
+  }
+
+  private long tempFiles() throws IOException {
+    try (var files = Files.list(tempDir)) {
+      return files.count();
+    }
+  }
+
+  @Test
+  void invalidMemoryBudget() {
+    assertThatThrownBy(() -> new ExternalIntSorter(0, tempDir)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void invalidFanIn() {
+    assertThatThrownBy(() -> sorter(4096, 1)).isInstanceOf(IllegalArgumentException.class).hasMessage("Wrong fan-in: 1");
+  }
+
+  @Test
+  void runSizeLeavesRoomForRunBeingFilled() {
+    assertThat(sorter(4000).getRunSize()).isEqualTo(200);
+  }
+
+  @Nested
+  class InMemory {
+
+    private ExternalIntSorter.SortedInts sorted;
+
+    @BeforeEach
+    void sortWithinBudget() throws IOException {
+      sorted = sorter(1 << 20).sort(Arrays.stream(numbers).iterator());
+    }
+
+    @Test
+    void sorted() throws IOException {
+      assertThat(drain(sorted)).isEqualTo(expected);
+    }
+
+    @Test
+    void notSpilled() throws IOException {
+      assertThat(tempFiles()).isZero();
+    }
+  }
+
+  @Nested
+  class Spilled {
+
+    private ExternalIntSorter.SortedInts sorted;
+
+    @BeforeEach
+    void sortBeyondBudget() throws IOException {
+      sorted = sorter(4096).sort(Arrays.stream(numbers).iterator());
+    }
+
+    @Test
+    void sorted() throws IOException {
+      assertThat(drain(sorted)).isEqualTo(expected);
+    }
+
+    @Test
+    void mergedRuns() {
+      assertThat(sorted.getRuns()).isEqualTo(50);
+    }
+
+    @Test
+    void cleanedUpOnClose() throws IOException {
+      drain(sorted);
+
+      assertThat(tempFiles()).isZero();
+    }
+  }
+
+  @Nested
+  class MultiPass {
+
+    private ExternalIntSorter.SortedInts sorted;
+
+    @BeforeEach
+    void sortWithSmallFanIn() throws IOException {
+      sorted = sorter(4096, 4).sort(Arrays.stream(numbers).iterator());
+    }
+
+    @Test
+    void sorted() throws IOException {
+      assertThat(drain(sorted)).isEqualTo(expected);
+    }
+
+    @Test
+    void finalMergeWithinFanIn() {
+      assertThat(sorted.getRuns()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void intermediateRunsDeleted() throws IOException {
+      assertThat(tempFiles()).isEqualTo(sorted.getRuns());
+    }
+
+    @Test
+    void cleanedUpOnClose() throws IOException {
+      drain(sorted);
+
+      assertThat(tempFiles()).isZero();
+    }
+  }
+
+  @Test
+  void duplicatesAndExtremes() throws IOException {
+    int[] values = {Integer.MAX_VALUE, 3, Integer.MIN_VALUE, 3, 0, -1, 3, Integer.MAX_VALUE};
+
+    assertThat(drain(sorter(8).sort(Arrays.stream(values).iterator()))).containsExactly(Integer.MIN_VALUE, -1, 0, 3, 3, 3, Integer.MAX_VALUE,
+        Integer.MAX_VALUE);
+  }
+
+  @Test
+  void empty() throws IOException {
+    assertThat(drain(sorter(4096).sort(IntStream.empty().iterator()))).isEmpty();
+  }
+
+  @Nested
+  class ByteChannels {
+
+    @Test
+    void sorted() throws IOException {
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      sorter(4096).sort(Channels.newChannel(new ByteArrayInputStream(toBytes(numbers))), Channels.newChannel(output));
+
+      int[] sorted = new int[numbers.length];
+      ByteBuffer.wrap(output.toByteArray()).asIntBuffer().get(sorted);
+      assertThat(sorted).isEqualTo(expected);
+    }
+
+    @Test
+    void truncated() {
+      byte[] bytes = Arrays.copyOf(toBytes(numbers), numbers.length * Integer.BYTES - 1);
+
+      assertThatThrownBy(() -> sorter(4096).sort(Channels.newChannel(new ByteArrayInputStream(bytes)),
+          Channels.newChannel(new ByteArrayOutputStream()))).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void cleanedUpOnTruncation() throws IOException {
+      byte[] bytes = Arrays.copyOf(toBytes(numbers), numbers.length * Integer.BYTES - 1);
+      assertThatThrownBy(() -> sorter(4096).sort(Channels.newChannel(new ByteArrayInputStream(bytes))))
+          .isInstanceOf(IOException.class);
+
+      assertThat(tempFiles()).isZero();
+    }
+  }
+
+  @Nested
+  class Failing {
+
+    @Test
+    void cleanedUpOnInputFailure() throws IOException {
+      PrimitiveIterator.OfInt failing = IntStream.range(0, 5000).map(i -> {
+        if (i == 4000) {
+          throw new IllegalStateException("broken input");
+        }
+        return i;
+      }).iterator();
+      assertThatThrownBy(() -> sorter(4096).sort(failing)).hasMessage("broken input");
+
+      assertThat(tempFiles()).isZero();
+    }
+
+    @Test
+    void missingTempDir() {
+      ExternalIntSorter sorter = new ExternalIntSorter(4096, tempDir.resolve("missing"), 2, ExternalIntSorter.DEFAULT_MAX_FAN_IN,
+          ForkJoinPool.commonPool());
+
+      assertThatThrownBy(() -> sorter.sort(Arrays.stream(numbers).iterator())).isInstanceOf(IOException.class);
+    }
+  }
+
+  @Test
+  void sortNumbers() throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    assertThat(UT02_WhatTo.sortNumbers(Channels.newChannel(new ByteArrayInputStream(toBytes(numbers))),
+        Channels.newChannel(output))).isEqualTo(numbers.length);
+  }
+}
@@ -0,0 +1,318 @@
+package de.mthix.junit5;
+
+import de.mthix.junit5.UT03_UseTheRightToolsFor.Actor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class HedgingActorTest {
+
+  private static final Duration STALL       = Duration.ofMillis(400);
+  private static final Duration HEDGE_DELAY = Duration.ofMillis(20);
+  private static final Duration DEADLINE    = Duration.ofSeconds(2);
+
+  private ExecutorService executor;
+
+  @BeforeEach
+  void startExecutor() {
+    executor = Executors.newCachedThreadPool();
+  }
+
+  @AfterEach
+  void stopExecutor() {
+    executor.shutdownNow();
+  }
+
+  private HedgingActor hedging(List<Actor> actors, Duration deadline, int failureThreshold) {
+    return new HedgingActor(actors, 99, HEDGE_DELAY, deadline, failureThreshold, Duration.ofMinutes(1), executor);
+  }
+
+  private static long maxLatencyMillis(Actor actor, int calls) {
+    long max = 0;
+    for (int i = 0; i < calls; i++) {
+      long start = System.nanoTime();
+      actor.doSomething();
+      max = Math.max(max, System.nanoTime() - start);
+    }
+    return Duration.ofNanos(max).toMillis();
+  }
+
+  @Test
+  void noActors() {
+    assertThatThrownBy(() -> new HedgingActor(emptyList(), DEADLINE)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void invalidDeadline() {
+    assertThatThrownBy(() -> new HedgingActor(List.of(new FakeActor(1, 0)), Duration.ZERO)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Nested
+  class TailLatency {
+
+    @Test
+    void stalledWithoutHedging() {
+      assertThat(maxLatencyMillis(new FakeActor(1, 5), 10)).isGreaterThanOrEqualTo(STALL.toMillis());
+    }
+
+    @Test
+    void cutByHedging() {
+      HedgingActor hedgingActor = hedging(List.of(new FakeActor(1, 5), new FakeActor(2, 0)), DEADLINE, 100);
+
+      assertThat(maxLatencyMillis(hedgingActor, 10)).isLessThan(STALL.toMillis() / 2);
+    }
+  }
+
+  @Nested
+  class Hedged {
+
+    private HedgingActor hedgingActor;
+    private Integer      result;
+
+    @BeforeEach
+    void stallPrimary() {
+      hedgingActor = hedging(List.of(new FakeActor(1, 1), new FakeActor(2, 0)), DEADLINE, 100);
+
+      result = hedgingActor.doSomething();
+    }
+
+    @Test
+    void firstResultWins() {
+      assertThat(result).isEqualTo(2);
+    }
+
+    @Test
+    void counted() {
+      assertThat(hedgingActor.getHedgeWins()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  void notHedgedWhenFast() {
+    HedgingActor hedgingActor = hedging(List.of(new FakeActor(1, 0), new FakeActor(2, 0)), DEADLINE, 100);
+    hedgingActor.doSomething();
+
+    assertThat(hedgingActor.getHedges()).isZero();
+  }
+
+  @Test
+  void failedOverOnError() {
+    HedgingActor hedgingActor = hedging(List.of(new FailingActor(), new FakeActor(2, 0)), DEADLINE, 100);
+
+    assertThat(hedgingActor.doSomething()).isEqualTo(2);
+  }
+
+  @Test
+  void primaryRotated() {
+    FakeActor first = new FakeActor(1, Integer.MAX_VALUE);
+    FakeActor second = new FakeActor(2, Integer.MAX_VALUE);
+    HedgingActor hedgingActor = hedging(List.of(first, second), DEADLINE, 100);
+    for (int i = 0; i < 4; i++) {
+      hedgingActor.doSomething();
+    }
+
+    assertThat(second.calls.get()).isEqualTo(2);
+  }
+
+  @Nested
+  class Rejected {
+
+    private HedgingActor hedgingActor;
+
+    @BeforeEach
+    void saturateCallers() {
+      hedgingActor = new HedgingActor(List.of(new FakeActor(1, 0)), DEADLINE, task -> {
+        throw new RejectedExecutionException("saturated");
+      });
+    }
+
+    @Test
+    void primaryOnCallerThread() {
+      assertThat(hedgingActor.doSomething()).isEqualTo(1);
+    }
+
+    @Test
+    void counted() {
+      hedgingActor.doSomething();
+
+      assertThat(hedgingActor.getRejected()).isEqualTo(1);
+    }
+  }
+
+  @Nested
+  class Deadline {
+
+    private HedgingActor hedgingActor;
+
+    @BeforeEach
+    void stallAll() {
+      hedgingActor = hedging(List.of(new FakeActor(1, 1), new FakeActor(2, 1)), Duration.ofMillis(100), 100);
+    }
+
+    @Test
+    void exceeded() {
+      assertThatThrownBy(hedgingActor::doSomething).hasMessageStartingWith("Deadline exceeded");
+    }
+
+    @Test
+    void counted() {
+      assertThatThrownBy(hedgingActor::doSomething).isInstanceOf(IllegalStateException.class);
+
+      assertThat(hedgingActor.getDeadlinesExceeded()).isEqualTo(1);
+    }
+  }
+
+  @Nested
+  class CircuitBreaker {
+
+    private FailingActor failing;
+    private HedgingActor hedgingActor;
+
+    @BeforeEach
+    void failTwice() {
+      failing = new FailingActor();
+      hedgingActor = hedging(List.of(failing, new FakeActor(2, 0)), DEADLINE, 2);
+      for (int i = 0; i < 3; i++) {
+        hedgingActor.doSomething();
+      }
+    }
+
+    @Test
+    void opened() {
+      assertThat(hedgingActor.isCircuitOpen(0)).isTrue();
+    }
+
+    @Test
+    void stoppedCalling() {
+      hedgingActor.doSomething();
+
+      assertThat(failing.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shortCircuitedWhenAllOpen() {
+      HedgingActor single = hedging(List.of(failing), DEADLINE, 1);
+      assertThatThrownBy(single::doSomething).hasMessage("down");
+
+      assertThatThrownBy(single::doSomething).hasMessage("All circuits open");
+    }
+  }
+
+  @Nested
+  class Breaker {
+
+    private HedgingActor.CircuitBreaker breaker;
+
+    @BeforeEach
+    void open() {
+      breaker = new HedgingActor.CircuitBreaker(1, 100);
+      breaker.recordFailure(0);
+    }
+
+    @Test
+    void rejectedWhileOpen() {
+      assertThat(breaker.tryAcquire(50)).isFalse();
+    }
+
+    @Test
+    void singleTrialWhenHalfOpen() {
+      breaker.tryAcquire(100);
+
+      assertThat(breaker.tryAcquire(100)).isFalse();
+    }
+
+    @Test
+    void closedAfterSuccessfulTrial() {
+      breaker.tryAcquire(100);
+      breaker.recordSuccess();
+
+      assertThat(breaker.isClosed()).isTrue();
+    }
+
+    @Test
+    void trialReleasedWhenNotCalled() {
+      breaker.tryAcquire(100);
+      breaker.release();
+
+      assertThat(breaker.tryAcquire(100)).isTrue();
+    }
+
+    @Test
+    void reopenedAfterFailedTrial() {
+      breaker.tryAcquire(100);
+      breaker.recordFailure(100);
+
+      assertThat(breaker.tryAcquire(150)).isFalse();
+    }
+  }
+
+  @Test
+  void hedgedUseTheRightToolsFor() {
+    assertThat(UT03_UseTheRightToolsFor.hedged(List.of(new FakeActor(3, 0)), DEADLINE).act()).isEqualTo(3);
+  }
+
+  private static class FakeActor implements Actor {
+
+    private final int           result;
+    private final int           stallEvery;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    FakeActor(int result, int stallEvery) {
+      this.result = result;
+      this.stallEvery = stallEvery;
+    }
+
+    @Override
+    public Integer doSomething() {
+      if (stallEvery > 0 && calls.incrementAndGet() % stallEvery == 0) {
+        try {
+          Thread.sleep(STALL.toMillis());
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      return result;
+    }
+
+    @Override
+    public void doSomethingElse() {
+    }
+
+    @Override
+    public Integer getStatus() {
+      return 0;
+    }
+  }
+
+  private static class FailingActor implements Actor {
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Override
+    public Integer doSomething() {
+      calls.incrementAndGet();
+      throw new IllegalStateException("down");
+    }
+
+    @Override
+    public void doSomethingElse() {
+    }
+
+    @Override
+    public Integer getStatus() {
+      return 0;
+    }
+  }
+}
@@ -0,0 +1,171 @@
+package de.mthix.junit5;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+public class IntIntIndexTest {
+
+  private IntIntIndex index;
+
+  @BeforeEach
+  void initIndex() {
+    index = IntIntIndex.of(new int[]{7, 0, -3, Integer.MIN_VALUE}, new int[]{54, 1, 33, 12});
+  }
+
+  @ParameterizedTest
+  @ValueSource(floats = {0f, 1f, Float.NaN})
+  void invalidLoadFactor(float loadFactor) {
+    assertThatThrownBy(() -> new IntIntIndex(4, loadFactor)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Nested
+  class Get {
+
+    @Test
+    void present() {
+      assertThat(index.get(-3, -1)).isEqualTo(33);
+    }
+
+    @Test
+    void zeroKey() {
+      assertThat(index.get(0, -1)).isEqualTo(1);
+    }
+
+    @Test
+    void missing() {
+      assertThat(index.get(8, -1)).isEqualTo(-1);
+    }
+  }
+
+  @Nested
+  class Put {
+
+    @Test
+    void replaced() {
+      index.put(7, 99);
+
+      assertThat(index.get(7, -1)).isEqualTo(99);
+    }
+
+    @Test
+    void grown() {
+      for (int key = 100; key < 200; key++) {
+        index.put(key, key * 2);
+      }
+
+      assertThat(index.get(150, -1)).isEqualTo(300);
+    }
+
+    @Test
+    void size() {
+      index.put(42, 5);
+
+      assertThat(index.size()).isEqualTo(5);
+    }
+  }
+
+  @Test
+  void putAllWrongLengths() {
+    assertThatThrownBy(() -> index.putAll(new int[2], new int[1])).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Nested
+  class Update {
+
+    @Test
+    void present() {
+      index.update(Integer.MIN_VALUE, 13);
+
+      assertThat(index.get(Integer.MIN_VALUE, -1)).isEqualTo(13);
+    }
+
+    @Test
+    void missing() {
+      assertThat(index.update(9, 13)).isFalse();
+    }
+  }
+
+  @Nested
+  class Remove {
+
+    @Test
+    void removed() {
+      index.remove(-3);
+
+      assertThat(index.containsKey(-3)).isFalse();
+    }
+
+    @Test
+    void zeroKey() {
+      index.remove(0);
+
+      assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void missing() {
+      assertThat(index.remove(5)).isFalse();
+    }
+
+    @Test
+    void keepsCollidingKeysReachable() {
+      Random random = new Random(42);
+      Map<Integer, Integer> expected = new HashMap<>();
+      IntIntIndex randomIndex = new IntIntIndex(16);
+      for (int i = 0; i < 10_000; i++) {
+        int key = random.nextInt(512);
+        if (random.nextBoolean()) {
+          randomIndex.put(key, i);
+          expected.put(key, i);
+        } else {
+          randomIndex.remove(key);
+          expected.remove(key);
+        }
+      }
+      Map<Integer, Integer> actual = new HashMap<>();
+
+      randomIndex.forEach(actual::put);
+
+      assertThat(actual).isEqualTo(expected);
+    }
+  }
+
+  @Test
+  void forEach() {
+    Map<Integer, Integer> entries = new HashMap<>();
+
+    index.forEach(entries::put);
+
+    assertThat(entries).containsOnly(entry(7, 54), entry(0, 1), entry(-3, 33), entry(Integer.MIN_VALUE, 12));
+  }
+
+  @Nested
+  class Statistics {
+
+    @Test
+    void loadFactor() {
+      assertThat(index.getLoadFactor()).isEqualTo(4.0 / index.capacity());
+    }
+
+    @Test
+    void averageProbeLength() {
+      assertThat(index.getAverageProbeLength()).isBetween(1.0, (double) index.getMaxProbeLength());
+    }
+
+    @Test
+    void emptyMaxProbeLength() {
+      assertThat(new IntIntIndex(0).getMaxProbeLength()).isZero();
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package de.mthix.junit5;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InvalidInputCounterTest {
+
+  private final InvalidInputCounter counter = new InvalidInputCounter("test");
+
+  @Nested
+  class AcrossThreads {
+
+    @BeforeEach
+    void incrementOnTwoThreads() throws Exception {
+      counter.increment();
+      ExecutorService executor = Executors.newSingleThreadExecutor();
+      Future<?> other = executor.submit(() -> {
+        for (int i = 0; i < 1000; i++) {
+          counter.increment();
+        }
+      });
+      other.get(5, SECONDS);
+      executor.shutdown();
+    }
+
+    @Test
+    void summed() {
+      assertThat(counter.sum()).isEqualTo(1001);
+    }
+  }
+
+  @Test
+  void shortLivedThreads() throws InterruptedException {
+    for (int i = 0; i < 1000; i++) {
+      Thread thread = new Thread(counter::increment);
+      thread.start();
+      thread.join();
+    }
+
+    assertThat(counter.sum()).isEqualTo(1000);
+  }
+
+  @Test
+  void startsAtZero() {
+    assertThat(counter.sum()).isZero();
+  }
+
+  @Test
+  void named() {
+    assertThat(counter).hasToString("invalid test inputs: 0");
+  }
+}
@@ -0,0 +1,102 @@
+package de.mthix.junit5;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class LatencyHistogramTest {
+
+  private LatencyHistogram histogram;
+
+  @BeforeEach
+  void initHistogram() {
+    histogram = new LatencyHistogram();
+  }
+
+  @Nested
+  class IndexOf {
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, 31, 32, 63, 64, 1_000, 123_456_789, 1L << 61})
+    void containsValue(long value) {
+      int index = LatencyHistogram.indexOf(value);
+
+      assertThat(LatencyHistogram.highestValueAt(index)).isBetween(value, value + value / LatencyHistogram.SUB_BUCKET_COUNT);
+    }
+
+    @Test
+    void maxWithinBuckets() {
+      assertThat(LatencyHistogram.indexOf(Long.MAX_VALUE)).isLessThan(LatencyHistogram.BUCKET_COUNT);
+    }
+  }
+
+  @Nested
+  class Percentiles {
+
+    private LatencyHistogram.Snapshot snapshot;
+
+    @BeforeEach
+    void recordOneToThousandMicros() {
+      for (long micros = 1; micros <= 1_000; micros++) {
+        histogram.record(micros * 1_000);
+      }
+      snapshot = histogram.snapshot();
+    }
+
+    @Test
+    void count() {
+      assertThat(snapshot.getCount()).isEqualTo(1_000);
+    }
+
+    @Test
+    void p50() {
+      assertThat(snapshot.getP50()).isCloseTo(500_000, within(500_000L / LatencyHistogram.SUB_BUCKET_COUNT));
+    }
+
+    @Test
+    void p99() {
+      assertThat(snapshot.getP99()).isCloseTo(990_000, within(990_000L / LatencyHistogram.SUB_BUCKET_COUNT));
+    }
+
+    @Test
+    void p999() {
+      assertThat(snapshot.getP999()).isCloseTo(999_000, within(999_000L / LatencyHistogram.SUB_BUCKET_COUNT));
+    }
+
+    @Test
+    void max() {
+      assertThat(snapshot.getMax()).isCloseTo(1_000_000, within(1_000_000L / LatencyHistogram.SUB_BUCKET_COUNT));
+    }
+
+    @Test
+    void mean() {
+      assertThat(snapshot.getMean()).isCloseTo(500_500, within(500_500.0 / LatencyHistogram.SUB_BUCKET_COUNT));
+    }
+  }
+
+  @Test
+  void emptyPercentile() {
+    assertThat(histogram.snapshot().getP99()).isZero();
+  }
+
+  @Test
+  void negativeRecordedAsZero() {
+    histogram.record(-5);
+
+    assertThat(histogram.snapshot().getMax()).isZero();
+  }
+
+  @Test
+  void reset() {
+    histogram.record(42);
+
+    histogram.reset();
+
+    assertThat(histogram.snapshot().getCount()).isZero();
+  }
+}
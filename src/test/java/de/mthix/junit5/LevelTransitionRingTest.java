@@ -0,0 +1,389 @@
+package de.mthix.junit5;
+
+import de.mthix.junit5.LevelTransitionRing.Overflow;
+import de.mthix.junit5.LevelTransitionRing.ProducerType;
+import de.mthix.junit5.UT02_WhatTo.WeightLevel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static de.mthix.junit5.UT02_WhatTo.WeightLevel.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class LevelTransitionRingTest {
+
+  private final List<String> received = new ArrayList<>();
+
+  private final LevelTransitionRing.Handler handler = (key, from, to, sequence, endOfBatch) ->
+      received.add(sequence + ":" + key + ":" + from + "->" + to + (endOfBatch ? "|" : ""));
+
+  @Nested
+  class Constructor {
+
+    @Test
+    void notPowerOfTwo() {
+      assertThatThrownBy(() -> new LevelTransitionRing(6, ProducerType.SINGLE, LevelTransitionRing.busySpin()))
+          .isInstanceOf(IllegalArgumentException.class).hasMessage("Wrong capacity: 6");
+    }
+
+    @Test
+    void tooSmall() {
+      assertThatThrownBy(() -> new LevelTransitionRing(1, ProducerType.MULTI, LevelTransitionRing.busySpin()))
+          .isInstanceOf(IllegalArgumentException.class).hasMessage("Wrong capacity: 1");
+    }
+  }
+
+  @Nested
+  class Drain {
+
+    private LevelTransitionRing ring;
+
+    @BeforeEach
+    void publishTransitions() {
+      ring = new LevelTransitionRing(4, ProducerType.SINGLE, LevelTransitionRing.busySpin());
+      ring.publish(7, MEDIUM, HEAVY);
+      ring.publish(8, null, LIGHT);
+      ring.publish(9, HEAVY, null);
+    }
+
+    @Test
+    void batch() {
+      ring.drain(handler, 10);
+
+      assertThat(received).containsExactly("0:7:MEDIUM->HEAVY", "1:8:null->LIGHT", "2:9:HEAVY->null|");
+    }
+
+    @Test
+    void maxBatch() {
+      ring.drain(handler, 2);
+
+      assertThat(received).containsExactly("0:7:MEDIUM->HEAVY", "1:8:null->LIGHT|");
+    }
+
+    @Test
+    void drainedCount() {
+      assertThat(ring.drain(handler, 10)).isEqualTo(3);
+    }
+
+    @Test
+    void empty() {
+      ring.drain(handler, 10);
+
+      assertThat(ring.drain(handler, 10)).isZero();
+    }
+
+    @Test
+    void backlog() {
+      ring.drain(handler, 1);
+
+      assertThat(ring.getBacklog()).isEqualTo(2);
+    }
+  }
+
+  @Nested
+  class Full {
+
+    private LevelTransitionRing ring;
+
+    @BeforeEach
+    void fillRing() {
+      ring = new LevelTransitionRing(2, ProducerType.SINGLE, LevelTransitionRing.busySpin(), Overflow.DROP);
+      ring.publish(1, LIGHT, MEDIUM);
+      ring.publish(2, LIGHT, MEDIUM);
+    }
+
+    @Test
+    void rejected() {
+      assertThat(ring.publish(3, LIGHT, MEDIUM)).isFalse();
+    }
+
+    @Test
+    void dropped() {
+      ring.publish(3, LIGHT, MEDIUM);
+
+      assertThat(ring.getDropped()).isEqualTo(1);
+    }
+
+    @Test
+    void wrapsAfterDrain() {
+      ring.drain(handler, 10);
+      ring.publish(3, MEDIUM, HEAVY);
+      received.clear();
+      ring.drain(handler, 10);
+
+      assertThat(received).containsExactly("2:3:MEDIUM->HEAVY|");
+    }
+  }
+
+  @Nested
+  class Blocking {
+
+    private LevelTransitionRing ring;
+    private Thread              producer;
+
+    @BeforeEach
+    void blockOnFullRing() throws InterruptedException {
+      ring = new LevelTransitionRing(2, ProducerType.MULTI, LevelTransitionRing.yielding(), Overflow.BLOCK, Duration.ofSeconds(10));
+      ring.publish(1, LIGHT, MEDIUM);
+      ring.publish(2, LIGHT, MEDIUM);
+      producer = new Thread(() -> ring.publish(3, MEDIUM, HEAVY));
+      producer.start();
+      producer.join(50);
+    }
+
+    @Test
+    void waitsForSpace() throws InterruptedException {
+      boolean blocked = producer.isAlive();
+      ring.drain(handler, 10);
+      producer.join(10_000);
+
+      assertThat(blocked).isTrue();
+    }
+
+    @Test
+    void publishedAfterDrain() throws InterruptedException {
+      ring.drain(handler, 10);
+      producer.join(10_000);
+      received.clear();
+      ring.drain(handler, 10);
+
+      assertThat(received).containsExactly("2:3:MEDIUM->HEAVY|");
+    }
+
+    @Test
+    void nothingDropped() throws InterruptedException {
+      ring.drain(handler, 10);
+      producer.join(10_000);
+
+      assertThat(ring.getDropped()).isZero();
+    }
+  }
+
+  @Nested
+  class BlockTimeout {
+
+    private LevelTransitionRing ring;
+
+    @BeforeEach
+    void fillRing() {
+      ring = new LevelTransitionRing(2, ProducerType.SINGLE, LevelTransitionRing.yielding(), Overflow.BLOCK, Duration.ofMillis(5));
+      ring.publish(1, LIGHT, MEDIUM);
+      ring.publish(2, LIGHT, MEDIUM);
+    }
+
+    @Test
+    void rejected() {
+      assertThat(ring.publish(3, LIGHT, MEDIUM)).isFalse();
+    }
+
+    @Test
+    void dropped() {
+      ring.publish(3, LIGHT, MEDIUM);
+
+      assertThat(ring.getDropped()).isEqualTo(1);
+    }
+
+    @Test
+    void stalledConsumerDoesNotBlockSetValue() {
+      UT02_WhatTo record = new UT02_WhatTo(7, 54);
+      ring.register(record);
+      record.setValue(120);
+
+      assertThat(record.getValue()).isEqualTo(120);
+    }
+  }
+
+  @Nested
+  class Poll {
+
+    @Test
+    void timeout() {
+      LevelTransitionRing ring = new LevelTransitionRing(4, ProducerType.SINGLE, LevelTransitionRing.sleeping(Duration.ofMillis(1)));
+
+      assertThat(ring.poll(handler, 10, Duration.ofMillis(20))).isZero();
+    }
+
+    @Test
+    void waitsForProducer() throws Exception {
+      LevelTransitionRing ring = new LevelTransitionRing(4, ProducerType.SINGLE, LevelTransitionRing.yielding());
+      Thread producer = new Thread(() -> {
+        try {
+          Thread.sleep(20);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        ring.publish(7, MEDIUM, HEAVY);
+      });
+      producer.start();
+      int drained = ring.poll(handler, 10, Duration.ofSeconds(10));
+      producer.join();
+
+      assertThat(drained).isEqualTo(1);
+    }
+  }
+
+  @Nested
+  class MultiProducer {
+
+    @Test
+    void noLostEvents() throws Exception {
+      int producers = 4;
+      int perProducer = 10_000;
+      LevelTransitionRing ring = new LevelTransitionRing(1 << 10, ProducerType.MULTI, LevelTransitionRing.busySpin());
+      ExecutorService executor = Executors.newFixedThreadPool(producers);
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<?>> futures = new ArrayList<>();
+      long[] keySum = new long[1];
+      try {
+        for (int p = 0; p < producers; p++) {
+          futures.add(executor.submit(() -> {
+            start.await();
+            for (int i = 1; i <= perProducer; i++) {
+              while (!ring.publish(i, LIGHT, MEDIUM)) {
+                Thread.onSpinWait();
+              }
+            }
+            return null;
+          }));
+        }
+        start.countDown();
+        long expected = (long) producers * perProducer;
+        long consumed = 0;
+        while (consumed < expected) {
+          consumed += ring.poll((key, from, to, sequence, endOfBatch) -> keySum[0] += key, 256, Duration.ofSeconds(10));
+        }
+        for (Future<?> future : futures) {
+          future.get();
+        }
+      } finally {
+        executor.shutdownNow();
+      }
+
+      assertThat(keySum[0]).isEqualTo((long) producers * perProducer * (perProducer + 1) / 2);
+    }
+  }
+
+  @Nested
+  class ConcurrentSetValue {
+
+    private final List<WeightLevel[]> transitions = new ArrayList<>();
+
+    private UT02_WhatTo record;
+
+    @BeforeEach
+    void setValuesConcurrently() throws Exception {
+      int writers = 4;
+      int perWriter = 5_000;
+      LevelTransitionRing ring = new LevelTransitionRing(1 << 16, ProducerType.MULTI, LevelTransitionRing.busySpin(), Overflow.DROP);
+      record = new UT02_WhatTo(7, 54);
+      ring.register(record);
+      ExecutorService executor = Executors.newFixedThreadPool(writers);
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<?>> futures = new ArrayList<>();
+      try {
+        for (int w = 0; w < writers; w++) {
+          int offset = w;
+          futures.add(executor.submit(() -> {
+            start.await();
+            for (int i = 0; i < perWriter; i++) {
+              record.setValue((i + offset) % 2 == 0 ? 5 : 120);
+            }
+            return null;
+          }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+          future.get();
+        }
+      } finally {
+        executor.shutdownNow();
+      }
+      ring.drain((key, from, to, sequence, endOfBatch) -> transitions.add(new WeightLevel[] {from, to}), Integer.MAX_VALUE);
+    }
+
+    @Test
+    void chained() {
+      int broken = 0;
+      WeightLevel previous = MEDIUM;
+      for (WeightLevel[] transition : transitions) {
+        broken += transition[0] == previous ? 0 : 1;
+        previous = transition[1];
+      }
+
+      assertThat(broken).isZero();
+    }
+
+    @Test
+    void endsAtCurrentLevel() {
+      assertThat(transitions.get(transitions.size() - 1)[1]).isEqualTo(record.getWeight());
+    }
+  }
+
+  @Nested
+  class SetValue {
+
+    private LevelTransitionRing ring;
+    private UT02_WhatTo         record;
+
+    @BeforeEach
+    void registerRecord() {
+      ring = new LevelTransitionRing(16, ProducerType.SINGLE, LevelTransitionRing.busySpin());
+      record = new UT02_WhatTo(7, 54);
+      ring.register(record);
+    }
+
+    @Test
+    void levelChanged() {
+      record.setValue(120);
+      ring.drain(handler, 10);
+
+      assertThat(received).containsExactly("0:7:MEDIUM->HEAVY|");
+    }
+
+    @Test
+    void sameLevel() {
+      record.setValue(60);
+
+      assertThat(ring.getClaimed()).isZero();
+    }
+
+    @Test
+    void becameInvalid() {
+      record.setValue(-1);
+      ring.drain(handler, 10);
+
+      assertThat(received).containsExactly("0:7:MEDIUM->null|");
+    }
+
+    @Test
+    void withRegistry() {
+      WeightLevelRegistry registry = new WeightLevelRegistry();
+      registry.register(record);
+      record.setValue(120);
+
+      assertThat(ring.getClaimed()).isEqualTo(1);
+    }
+
+    @Test
+    void alreadyRegistered() {
+      assertThatThrownBy(() -> ring.register(record)).isInstanceOf(IllegalStateException.class).hasMessage("Already observed: 7");
+    }
+
+    @Test
+    void unregistered() {
+      ring.unregister(record);
+      record.setValue(120);
+
+      assertThat(ring.getClaimed()).isZero();
+    }
+  }
+}
@@ -0,0 +1,253 @@
+package de.mthix.junit5;
+
+import de.mthix.junit5.UT03_UseTheRightToolsFor.BatchActor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class MicroBatcherTest {
+
+  private static final Duration LONG_WINDOW = Duration.ofMinutes(1);
+
+  @Mock
+  private BatchActor mockActor;
+
+  private ScheduledExecutorService timer;
+
+  @BeforeEach
+  void startTimer() {
+    timer = Executors.newSingleThreadScheduledExecutor();
+  }
+
+  @AfterEach
+  void stopTimer() {
+    timer.shutdownNow();
+  }
+
+  private MicroBatcher batcher(Duration window, int maxBatchSize, int maxPending, MicroBatcher.Overflow overflow) {
+    return new MicroBatcher(mockActor, window, maxBatchSize, maxPending, overflow, timer, Runnable::run);
+  }
+
+  private void answerWithIndices() {
+    when(mockActor.doSomething(anyInt())).thenAnswer(invocation -> IntStream.range(0, invocation.<Integer>getArgument(0)).boxed().collect(Collectors.toList()));
+  }
+
+  private static List<CompletableFuture<Integer>> submit(MicroBatcher batcher, int calls) {
+    List<CompletableFuture<Integer>> futures = new ArrayList<>();
+    for (int i = 0; i < calls; i++) {
+      futures.add(batcher.submit());
+    }
+    return futures;
+  }
+
+  @Test
+  void invalidMaxBatchSize() {
+    assertThatThrownBy(() -> new MicroBatcher(mockActor, LONG_WINDOW, 0, 10, MicroBatcher.Overflow.REJECT)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Nested
+  class FullBatch {
+
+    private MicroBatcher                     batcher;
+    private List<CompletableFuture<Integer>> futures;
+
+    @BeforeEach
+    void submitMaxBatchSize() {
+      answerWithIndices();
+      batcher = batcher(LONG_WINDOW, 4, 16, MicroBatcher.Overflow.REJECT);
+
+      futures = submit(batcher, 4);
+    }
+
+    @Test
+    void singleBackendCall() {
+      verify(mockActor).doSomething(4);
+    }
+
+    @Test
+    void ownResults() {
+      assertThat(futures).extracting(CompletableFuture::join).containsExactly(0, 1, 2, 3);
+    }
+
+    @Test
+    void notPending() {
+      assertThat(batcher.getPending()).isZero();
+    }
+  }
+
+  @Nested
+  class Window {
+
+    @Test
+    void flushedAfterWindow() throws Exception {
+      answerWithIndices();
+      MicroBatcher batcher = batcher(Duration.ofMillis(5), 64, 64, MicroBatcher.Overflow.REJECT);
+
+      assertThat(submit(batcher, 3).get(2).get(5, SECONDS)).isEqualTo(2);
+    }
+
+    @Test
+    void notFlushedWithinWindow() {
+      submit(batcher(LONG_WINDOW, 64, 64, MicroBatcher.Overflow.REJECT), 3);
+
+      verify(mockActor, never()).doSomething(anyInt());
+    }
+
+    @Test
+    void flushedExplicitly() {
+      answerWithIndices();
+      MicroBatcher batcher = batcher(LONG_WINDOW, 64, 64, MicroBatcher.Overflow.REJECT);
+      List<CompletableFuture<Integer>> futures = submit(batcher, 3);
+
+      batcher.flush();
+
+      assertThat(futures).allMatch(CompletableFuture::isDone);
+    }
+  }
+
+  @Nested
+  class Backpressure {
+
+    private final List<Runnable> stalledDispatches = new ArrayList<>();
+
+    private MicroBatcher stalledBatcher(MicroBatcher.Overflow overflow) {
+      MicroBatcher batcher = new MicroBatcher(mockActor, LONG_WINDOW, 2, 2, overflow, timer, stalledDispatches::add);
+      batcher.submit();
+      batcher.submit();
+      return batcher;
+    }
+
+    @Test
+    void rejected() {
+      assertThatThrownBy(() -> stalledBatcher(MicroBatcher.Overflow.REJECT).submit().join()).hasCauseInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    void countedOverflow() {
+      MicroBatcher batcher = stalledBatcher(MicroBatcher.Overflow.REJECT);
+      batcher.submit();
+
+      assertThat(batcher.getOverflows()).isEqualTo(1);
+    }
+
+    @Test
+    void callerRuns() {
+      when(mockActor.doSomething()).thenReturn(7);
+
+      assertThat(stalledBatcher(MicroBatcher.Overflow.CALLER_RUNS).submit().join()).isEqualTo(7);
+    }
+
+    @Test
+    void acceptedAfterDispatch() {
+      answerWithIndices();
+      MicroBatcher batcher = stalledBatcher(MicroBatcher.Overflow.REJECT);
+      stalledDispatches.forEach(Runnable::run);
+
+      assertThat(batcher.submit()).isNotCompletedExceptionally();
+    }
+  }
+
+  @Nested
+  class RejectedDispatch {
+
+    private MicroBatcher rejectingBatcher(Duration window) {
+      return new MicroBatcher(mockActor, window, 2, 2, MicroBatcher.Overflow.REJECT, timer, task -> {
+        throw new RejectedExecutionException("shut down");
+      });
+    }
+
+    @Test
+    void fullBatchFailed() {
+      assertThat(submit(rejectingBatcher(LONG_WINDOW), 2)).allMatch(CompletableFuture::isCompletedExceptionally);
+    }
+
+    @Test
+    void windowBatchFailed() {
+      CompletableFuture<Integer> future = rejectingBatcher(Duration.ofMillis(1)).submit();
+
+      assertThatThrownBy(() -> future.get(5, SECONDS)).hasCauseInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    void notPending() {
+      MicroBatcher batcher = rejectingBatcher(LONG_WINDOW);
+      submit(batcher, 2);
+
+      assertThat(batcher.getPending()).isZero();
+    }
+  }
+
+  @Nested
+  class Failing {
+
+    @Test
+    void allCallersFailed() {
+      when(mockActor.doSomething(anyInt())).thenThrow(new IllegalStateException("down"));
+
+      assertThat(submit(batcher(LONG_WINDOW, 2, 2, MicroBatcher.Overflow.REJECT), 2)).allMatch(CompletableFuture::isCompletedExceptionally);
+    }
+
+    @Test
+    void wrongResultSize() {
+      when(mockActor.doSomething(anyInt())).thenReturn(List.of(1));
+      List<CompletableFuture<Integer>> futures = submit(batcher(LONG_WINDOW, 2, 2, MicroBatcher.Overflow.REJECT), 2);
+
+      assertThatThrownBy(() -> futures.get(0).join()).hasMessageContaining("Wrong batch result size");
+    }
+  }
+
+  @Test
+  void averageBatchSize() {
+    answerWithIndices();
+    MicroBatcher batcher = batcher(LONG_WINDOW, 4, 16, MicroBatcher.Overflow.REJECT);
+    submit(batcher, 6);
+    batcher.flush();
+
+    assertThat(batcher.getAverageBatchSize()).isEqualTo(3);
+  }
+
+  @Nested
+  class BatchedUseTheRightToolsFor {
+
+    private UT03_UseTheRightToolsFor ut03;
+
+    @BeforeEach
+    void initBatched() {
+      answerWithIndices();
+      ut03 = UT03_UseTheRightToolsFor.batched(mockActor, Duration.ofMillis(1), 8);
+    }
+
+    @Test
+    void act() {
+      assertThat(ut03.act()).isZero();
+    }
+
+    @Test
+    void actAsync() throws Exception {
+      assertThat(ut03.actAsync().get(5, SECONDS)).isZero();
+    }
+  }
+}
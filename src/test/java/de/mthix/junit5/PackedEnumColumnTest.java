@@ -0,0 +1,225 @@
+package de.mthix.junit5;
+
+import de.mthix.junit5.UT02_WhatTo.WeightLevel;
+import de.mthix.junit5.UT03_UseTheRightToolsFor.Size;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static de.mthix.junit5.UT02_WhatTo.WeightLevel.HEAVY;
+import static de.mthix.junit5.UT02_WhatTo.WeightLevel.LIGHT;
+import static de.mthix.junit5.UT03_UseTheRightToolsFor.Size.LARGE;
+import static de.mthix.junit5.UT03_UseTheRightToolsFor.Size.SMALL;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PackedEnumColumnTest {
+
+  @Test
+  void tooManyConstants() {
+    assertThatThrownBy(() -> new PackedEnumColumn<>(TimeUnit.class, 1)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void unsetIsNull() {
+    assertThat(new PackedEnumColumn<>(Size.class, 10).get(9)).isNull();
+  }
+
+  @Nested
+  class GetSet {
+
+    private PackedEnumColumn<Size> column;
+
+    @BeforeEach
+    void setAcrossWordBoundary() {
+      column = new PackedEnumColumn<>(Size.class, 100);
+      column.set(31, LARGE);
+      column.set(32, SMALL);
+      column.set(33, Size.MEDIUM);
+    }
+
+    @Test
+    void lastSlotOfWord() {
+      assertThat(column.get(31)).isEqualTo(LARGE);
+    }
+
+    @Test
+    void firstSlotOfWord() {
+      assertThat(column.get(32)).isEqualTo(SMALL);
+    }
+
+    @Test
+    void neighboursUntouched() {
+      assertThat(column.get(30)).isNull();
+    }
+
+    @Test
+    void overwritten() {
+      column.set(31, null);
+
+      assertThat(column.getOrdinal(31)).isEqualTo(-1);
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(longs = {-1, 100})
+  void outOfBounds(long index) {
+    PackedEnumColumn<Size> column = new PackedEnumColumn<>(Size.class, 100);
+
+    assertThatThrownBy(() -> column.get(index)).isInstanceOf(IndexOutOfBoundsException.class);
+  }
+
+  @Nested
+  class OfWeights {
+
+    private int[]                         weights;
+    private PackedEnumColumn<WeightLevel> column;
+
+    @BeforeEach
+    void pack() {
+      weights = new Random(42).ints(1000, -20, 200).toArray();
+      column = PackedEnumColumn.ofWeights(weights);
+    }
+
+    @Test
+    void sameAsWeightLevelOrdinal() {
+      assertThat(LongStream.range(0, weights.length).mapToInt(column::getOrdinal).toArray())
+          .isEqualTo(Arrays.stream(weights).map(UT02_WhatTo::weightLevelOrdinal).toArray());
+    }
+
+    @Test
+    void countPerConstant() {
+      assertThat(new long[]{column.count(LIGHT), column.count(WeightLevel.MEDIUM), column.count(HEAVY), column.countInvalid()})
+          .containsExactly(Arrays.stream(weights).filter(w -> w >= 0 && w <= 10).count(), Arrays.stream(weights).filter(w -> w > 10 && w <= 100).count(),
+              Arrays.stream(weights).filter(w -> w > 100).count(), Arrays.stream(weights).filter(w -> w < 0).count());
+    }
+
+    @Test
+    void packedIntoTwoBits() {
+      assertThat(column.getMemoryBytes()).isEqualTo(256);
+    }
+  }
+
+  @Nested
+  class Fill {
+
+    private PackedEnumColumn<Size> column;
+
+    @BeforeEach
+    void fillUnaligned() {
+      column = new PackedEnumColumn<>(Size.class, 100);
+
+      column.fill(5, 80, i -> i % 3);
+    }
+
+    @Test
+    void head() {
+      assertThat(column.get(5)).isEqualTo(SMALL);
+    }
+
+    @Test
+    void alignedWord() {
+      assertThat(column.get(64 + 5)).isEqualTo(Size.values()[64 % 3]);
+    }
+
+    @Test
+    void tail() {
+      assertThat(column.get(84)).isEqualTo(Size.values()[79 % 3]);
+    }
+
+    @Test
+    void outsideUntouched() {
+      assertThat(column.countInvalid()).isEqualTo(20);
+    }
+
+    @Test
+    void beyondSize() {
+      assertThatThrownBy(() -> column.fill(90, 20, i -> 0)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+  }
+
+  @Nested
+  class OfSizeCodes {
+
+    @Test
+    void charSequence() {
+      assertThat(PackedEnumColumn.ofSizeCodes("smlx").get(2)).isEqualTo(LARGE);
+    }
+
+    @Test
+    void invalid() {
+      assertThat(PackedEnumColumn.ofSizeCodes("smlx").countInvalid()).isEqualTo(1);
+    }
+
+    @Test
+    void byteBuffer() {
+      assertThat(PackedEnumColumn.ofSizeCodes(ByteBuffer.wrap("mmsl".getBytes())).count(Size.MEDIUM)).isEqualTo(2);
+    }
+
+    @Test
+    void lineBreaksSkipped() {
+      assertThat(PackedEnumColumn.ofSizeCodes("s\nm\r\nl\n").size()).isEqualTo(3);
+    }
+
+    @Test
+    void indicesMatchDecoder() {
+      assertThat(PackedEnumColumn.ofSizeCodes("s\nm\nl\n").get(1)).isEqualTo(Size.MEDIUM);
+    }
+
+    @Test
+    void lineBreaksSkippedInBuffer() {
+      assertThat(PackedEnumColumn.ofSizeCodes(ByteBuffer.wrap("s\nx\nl\n".getBytes())).countInvalid()).isEqualTo(1);
+    }
+  }
+
+  @Nested
+  class Serialization {
+
+    private PackedEnumColumn<WeightLevel> column;
+    private byte[]                        bytes;
+
+    @BeforeEach
+    void write() throws IOException {
+      column = PackedEnumColumn.ofWeights(new Random(7).ints(70_000, -5, 150).toArray());
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      column.writeTo(Channels.newChannel(output));
+      bytes = output.toByteArray();
+    }
+
+    @Test
+    void roundTrip() throws IOException {
+      PackedEnumColumn<WeightLevel> read = PackedEnumColumn.readFrom(Channels.newChannel(new ByteArrayInputStream(bytes)), WeightLevel.class);
+
+      assertThat(LongStream.range(0, read.size()).map(read::getOrdinal).toArray())
+          .isEqualTo(LongStream.range(0, column.size()).map(column::getOrdinal).toArray());
+    }
+
+    @Test
+    void wrongType() {
+      bytes[7] = 4;
+
+      assertThatThrownBy(() -> PackedEnumColumn.readFrom(Channels.newChannel(new ByteArrayInputStream(bytes)), WeightLevel.class))
+          .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void truncated() {
+      byte[] truncated = Arrays.copyOf(bytes, bytes.length - 1);
+
+      assertThatThrownBy(() -> PackedEnumColumn.readFrom(Channels.newChannel(new ByteArrayInputStream(truncated)), WeightLevel.class))
+          .hasMessageStartingWith("Truncated");
+    }
+  }
+}
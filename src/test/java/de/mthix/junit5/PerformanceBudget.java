@@ -0,0 +1,29 @@
+package de.mthix.junit5;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Repeats the annotated test and fails it if the mean time or allocation per invocation exceeds the budget.
+ * <p>Negative limits are not checked. The test body must therefore be repeatable without new setup. Time budgets are only
+ * enforced when {@value PerformanceBudgetExtension#ENFORCE_TIME_PARAMETER} is set.</p>
+ *
+ * @see PerformanceBudgetExtension
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(PerformanceBudgetExtension.class)
+public @interface PerformanceBudget {
+
+  long maxNanos() default -1;
+
+  long maxAllocatedBytes() default -1;
+
+  int warmup() default 1_000;
+
+  int iterations() default 1_000;
+}
@@ -0,0 +1,180 @@
+package de.mthix.junit5;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.opentest4j.AssertionFailedError;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+
+/**
+ * Runs {@link PerformanceBudget} tests repeatedly, measures elapsed time and thread allocation and appends one JSON line
+ * per test to the report file configured by {@value #REPORT_PARAMETER}. The file is truncated by the first report of each
+ * test run, so it only holds results of the current run.
+ * <p>Allocation budgets always fail the test. Time budgets depend on the machine and only fail it when
+ * {@value #ENFORCE_TIME_PARAMETER} is {@code true}; otherwise they are just reported.</p>
+ */
+public class PerformanceBudgetExtension implements InvocationInterceptor {
+
+  public static final String REPORT_PARAMETER       = "performance.budget.report";
+  public static final String ENFORCE_TIME_PARAMETER = "performance.budget.enforceTime";
+  public static final String DEFAULT_REPORT         = "build/test-results/performance-budget.jsonl";
+
+  private static final Object                     REPORT_LOCK = new Object();
+  private static final ExtensionContext.Namespace NAMESPACE   = ExtensionContext.Namespace.create(PerformanceBudgetExtension.class);
+
+  @Override
+  public void interceptTestMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext, ExtensionContext extensionContext) throws Throwable {
+    measure(invocation, invocationContext, extensionContext);
+  }
+
+  @Override
+  public void interceptTestTemplateMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext, ExtensionContext extensionContext) throws Throwable {
+    measure(invocation, invocationContext, extensionContext);
+  }
+
+  private void measure(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext, ExtensionContext extensionContext) throws Throwable {
+    Optional<PerformanceBudget> found = findBudget(extensionContext);
+    if (found.isEmpty()) {
+      invocation.proceed();
+      return;
+    }
+    PerformanceBudget budget = found.get();
+    Method method = invocationContext.getExecutable();
+    Object target = invocationContext.getTarget().orElse(null);
+    Object[] arguments = invocationContext.getArguments().toArray();
+    method.setAccessible(true);
+
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+    long allocatedBefore;
+    long allocatedAfter;
+    long elapsed;
+    try {
+      for (int i = 0; i < budget.warmup(); i++) {
+        invoke(method, target, arguments);
+      }
+      allocatedBefore = allocatedBytes(threads, threadId);
+      long start = System.nanoTime();
+      for (int i = 0; i < budget.iterations(); i++) {
+        invoke(method, target, arguments);
+      }
+      elapsed = System.nanoTime() - start;
+      allocatedAfter = allocatedBytes(threads, threadId);
+    } finally {
+      invocation.skip();
+    }
+
+    int iterations = Math.max(1, budget.iterations());
+    long meanNanos = elapsed / iterations;
+    long meanAllocatedBytes = allocatedBefore < 0 || allocatedAfter < 0 ? -1 : (allocatedAfter - allocatedBefore) / iterations;
+    boolean timeExceeded = budget.maxNanos() >= 0 && meanNanos > budget.maxNanos();
+    boolean allocationExceeded = budget.maxAllocatedBytes() >= 0 && meanAllocatedBytes > budget.maxAllocatedBytes();
+
+    Map<String, String> entry = new LinkedHashMap<>();
+    entry.put("iterations", String.valueOf(iterations));
+    entry.put("meanNanos", String.valueOf(meanNanos));
+    entry.put("meanAllocatedBytes", String.valueOf(meanAllocatedBytes));
+    extensionContext.publishReportEntry(entry);
+    report(extensionContext, budget, iterations, meanNanos, meanAllocatedBytes, !timeExceeded && !allocationExceeded);
+
+    if (timeExceeded && extensionContext.getConfigurationParameter(ENFORCE_TIME_PARAMETER, Boolean::parseBoolean).orElse(false)) {
+      throw new AssertionFailedError("Time budget exceeded: " + meanNanos + " ns > " + budget.maxNanos() + " ns per invocation");
+    }
+    if (allocationExceeded) {
+      throw new AssertionFailedError("Allocation budget exceeded: " + meanAllocatedBytes + " B > " + budget.maxAllocatedBytes() + " B per invocation");
+    }
+  }
+
+  private static Optional<PerformanceBudget> findBudget(ExtensionContext context) {
+    for (Optional<ExtensionContext> current = Optional.of(context); current.isPresent(); current = current.get().getParent()) {
+      Optional<PerformanceBudget> budget = AnnotationSupport.findAnnotation(current.get().getElement(), PerformanceBudget.class);
+      if (budget.isPresent()) {
+        return budget;
+      }
+    }
+    return Optional.empty();
+  }
+
+  private static void invoke(Method method, Object target, Object[] arguments) throws Throwable {
+    try {
+      method.invoke(target, arguments);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  private static long allocatedBytes(ThreadMXBean threads, long threadId) {
+    if (threads instanceof com.sun.management.ThreadMXBean) {
+      return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(threadId);
+    }
+    return -1;
+  }
+
+  private static void report(ExtensionContext context, PerformanceBudget budget, int iterations, long meanNanos, long meanAllocatedBytes, boolean passed) {
+    Deque<String> path = new ArrayDeque<>();
+    for (ExtensionContext current = context; current.getParent().isPresent(); current = current.getParent().get()) {
+      path.addFirst('"' + escape(current.getDisplayName()) + '"');
+    }
+    String line = "{\"path\":[" + String.join(",", path) + "]"
+        + ",\"uniqueId\":\"" + escape(context.getUniqueId()) + '"'
+        + ",\"iterations\":" + iterations
+        + ",\"meanNanos\":" + meanNanos
+        + ",\"maxNanos\":" + budget.maxNanos()
+        + ",\"meanAllocatedBytes\":" + meanAllocatedBytes
+        + ",\"maxAllocatedBytes\":" + budget.maxAllocatedBytes()
+        + ",\"passed\":" + passed + "}\n";
+    Path file = Paths.get(context.getConfigurationParameter(REPORT_PARAMETER).orElse(DEFAULT_REPORT));
+    synchronized (REPORT_LOCK) {
+      try {
+        if (file.getParent() != null) {
+          Files.createDirectories(file.getParent());
+        }
+        context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(file.toAbsolutePath().toString(), key -> truncate(file), Path.class);
+        Files.write(file, line.getBytes(UTF_8), CREATE, APPEND);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  private static Path truncate(Path file) {
+    try {
+      return Files.write(file, new byte[0]);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static String escape(String value) {
+    StringBuilder escaped = new StringBuilder(value.length());
+    for (char c : value.toCharArray()) {
+      if (c == '"' || c == '\\') {
+        escaped.append('\\').append(c);
+      } else if (c < 0x20) {
+        escaped.append(String.format("\\u%04x", (int) c));
+      } else {
+        escaped.append(c);
+      }
+    }
+    return escaped.toString();
+  }
+}
@@ -0,0 +1,146 @@
+package de.mthix.junit5;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.platform.testkit.engine.EngineExecutionResults;
+import org.junit.platform.testkit.engine.EngineTestKit;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.junit.platform.testkit.engine.EventConditions.finishedWithFailure;
+import static org.junit.platform.testkit.engine.TestExecutionResultConditions.message;
+
+public class PerformanceBudgetExtensionTest {
+
+  private static final String FIXTURE_PARAMETER = "performance.budget.fixture";
+
+  @TempDir
+  Path tempDir;
+
+  private Path report;
+
+  @BeforeEach
+  void resolveReport() {
+    report = tempDir.resolve("budget.jsonl");
+  }
+
+  @Nested
+  class AllocationBudget {
+
+    @Test
+    void exceeded() {
+      execute(OverAllocationBudget.class, false).testEvents()
+          .assertThatEvents().haveExactly(1, finishedWithFailure(message(text -> text.startsWith("Allocation budget exceeded"))));
+    }
+
+    @Test
+    void reported() throws IOException {
+      execute(OverAllocationBudget.class, false);
+
+      assertThat(Files.readAllLines(report)).singleElement().asString().contains("\"passed\":false");
+    }
+  }
+
+  @Nested
+  class TimeBudget {
+
+    @Test
+    void exceededWhenEnforced() {
+      execute(OverTimeBudget.class, true).testEvents()
+          .assertThatEvents().haveExactly(1, finishedWithFailure(message(text -> text.startsWith("Time budget exceeded"))));
+    }
+
+    @Test
+    void onlyReportedByDefault() {
+      execute(OverTimeBudget.class, false).testEvents().assertStatistics(stats -> stats.succeeded(1).failed(0));
+    }
+  }
+
+  @Nested
+  class WithinBudget {
+
+    private List<String> lines;
+
+    @BeforeEach
+    void runWithinBudget() throws IOException {
+      execute(UnderBudget.class, true);
+      lines = Files.readAllLines(report);
+    }
+
+    @Test
+    void passed() {
+      assertThat(lines).singleElement().asString().contains("\"passed\":true");
+    }
+
+    @Test
+    void path() {
+      assertThat(lines).singleElement().asString().contains("\"path\":[\"PerformanceBudgetExtensionTest$UnderBudget\",\"cheap()\"]");
+    }
+
+    @Test
+    void iterations() {
+      assertThat(lines).singleElement().asString().contains("\"iterations\":10,");
+    }
+  }
+
+  private EngineExecutionResults execute(Class<?> fixture, boolean enforceTime) {
+    return EngineTestKit.engine("junit-jupiter")
+        .selectors(selectClass(fixture))
+        .configurationParameter(FIXTURE_PARAMETER, "true")
+        .configurationParameter(PerformanceBudgetExtension.REPORT_PARAMETER, report.toString())
+        .configurationParameter(PerformanceBudgetExtension.ENFORCE_TIME_PARAMETER, String.valueOf(enforceTime))
+        .execute();
+  }
+
+  static class OnlyAsFixture implements ExecutionCondition {
+
+    @Override
+    public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+      return context.getConfigurationParameter(FIXTURE_PARAMETER).isPresent()
+          ? ConditionEvaluationResult.enabled("Run by PerformanceBudgetExtensionTest")
+          : ConditionEvaluationResult.disabled("Fixture of PerformanceBudgetExtensionTest");
+    }
+  }
+
+  @ExtendWith(OnlyAsFixture.class)
+  static class OverAllocationBudget {
+
+    static Object sink;
+
+    @Test
+    @PerformanceBudget(maxAllocatedBytes = 0, warmup = 10, iterations = 10)
+    void allocating() {
+      sink = new byte[1024];
+    }
+  }
+
+  @ExtendWith(OnlyAsFixture.class)
+  static class OverTimeBudget {
+
+    @Test
+    @PerformanceBudget(maxNanos = 0, warmup = 10, iterations = 10)
+    void sleeping() throws InterruptedException {
+      Thread.sleep(1);
+    }
+  }
+
+  @ExtendWith(OnlyAsFixture.class)
+  static class UnderBudget {
+
+    @Test
+    @PerformanceBudget(maxNanos = 1_000_000_000, maxAllocatedBytes = 1 << 20, warmup = 10, iterations = 10)
+    void cheap() {
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package de.mthix.junit5;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static de.mthix.junit5.SizeCodeDecoder.*;
+import static de.mthix.junit5.UT03_UseTheRightToolsFor.Size.*;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+public class SizeCodeDecoderTest {
+
+  private static final String CODES = "smlx\nll\r\nsC";
+
+  private byte[] sizes;
+
+  @BeforeEach
+  void initSizes() {
+    sizes = new byte[16];
+  }
+
+  @Nested
+  class SizeOrdinal {
+
+    @ParameterizedTest
+    @CsvSource({"s, 0", "m, 1", "l, 2"})
+    void valid(char code, int ordinal) {
+      assertThat(sizeOrdinal(code)).isEqualTo(ordinal);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {'a', 'S', 0, 127, 128, -1, Character.MAX_VALUE})
+    void invalid(int code) {
+      assertThat(sizeOrdinal(code)).isEqualTo(INVALID_SIZE);
+    }
+
+    @Test
+    void matchesConvertSizeCode() {
+      assertThat(sizeOrdinal('m')).isEqualTo(UT03_UseTheRightToolsFor.convertSizeCode("m").ordinal());
+    }
+  }
+
+  @Nested
+  class DecodeByteBuffer {
+
+    @Nested
+    class Heap {
+
+      private SizeHistogram histogram;
+
+      @BeforeEach
+      void decodeHeapBuffer() {
+        histogram = decode(ByteBuffer.wrap(CODES.getBytes(US_ASCII)), sizes);
+      }
+
+      @Test
+      void sizes() {
+        assertThat(sizes).startsWith(0, 1, 2, -1, 2, 2, 0, -1);
+      }
+
+      @Test
+      void counts() {
+        assertThat(histogram.toMap()).containsOnly(entry(SMALL, 2L), entry(MEDIUM, 1L), entry(LARGE, 3L));
+      }
+
+      @Test
+      void invalid() {
+        assertThat(histogram.getInvalid()).isEqualTo(2);
+      }
+    }
+
+    @Test
+    void direct() {
+      ByteBuffer codes = ByteBuffer.allocateDirect(3).put("lms".getBytes(US_ASCII)).flip();
+
+      decode(codes, sizes);
+
+      assertThat(sizes).startsWith(2, 1, 0);
+    }
+
+    @Test
+    void continuedAtOffset() {
+      SizeHistogram histogram = new SizeHistogram();
+
+      int next = decode(ByteBuffer.wrap("mm".getBytes(US_ASCII)), sizes, 3, histogram);
+
+      assertThat(next).isEqualTo(5);
+    }
+
+    @Test
+    void outputTooSmall() {
+      assertThatThrownBy(() -> decode(ByteBuffer.wrap(CODES.getBytes(US_ASCII)), new byte[2])).isInstanceOf(IllegalArgumentException.class);
+    }
+  }
+
+  @Test
+  void decodeCharSequence() {
+    assertThat(decode(new StringBuilder(CODES), sizes).get(LARGE)).isEqualTo(3);
+  }
+
+  @Nested
+  class DecodeFile {
+
+    private SizeHistogram histogram;
+
+    @BeforeEach
+    void decodeMappedFile(@TempDir Path tempDir) throws IOException {
+      Path file = Files.write(tempDir.resolve("codes.txt"), "l\nm\nm\nq\n".getBytes(US_ASCII));
+
+      histogram = decode(file, sizes);
+    }
+
+    @Test
+    void sizes() {
+      assertThat(sizes).startsWith(2, 1, 1, -1);
+    }
+
+    @Test
+    void total() {
+      assertThat(histogram.getTotal()).isEqualTo(4);
+    }
+  }
+}
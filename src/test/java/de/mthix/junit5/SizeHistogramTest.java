@@ -0,0 +1,64 @@
+package de.mthix.junit5;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static de.mthix.junit5.UT03_UseTheRightToolsFor.Size.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+public class SizeHistogramTest {
+
+  private SizeHistogram histogram;
+
+  @BeforeEach
+  void initHistogram() {
+    histogram = new SizeHistogram();
+    histogram.count(LARGE.ordinal());
+    histogram.count(LARGE.ordinal());
+    histogram.count(SMALL.ordinal());
+    histogram.count(SizeCodeDecoder.INVALID_SIZE);
+  }
+
+  @Test
+  void get() {
+    assertThat(histogram.get(LARGE)).isEqualTo(2);
+  }
+
+  @Test
+  void getInvalid() {
+    assertThat(histogram.getInvalid()).isEqualTo(1);
+  }
+
+  @Test
+  void getTotal() {
+    assertThat(histogram.getTotal()).isEqualTo(4);
+  }
+
+  @Test
+  void toMap() {
+    assertThat(histogram.toMap()).containsExactly(entry(SMALL, 1L), entry(MEDIUM, 0L), entry(LARGE, 2L));
+  }
+
+  @Nested
+  class Merge {
+
+    @BeforeEach
+    void mergeOther() {
+      SizeHistogram other = new SizeHistogram();
+      other.count(MEDIUM.ordinal());
+      histogram.merge(other);
+    }
+
+    @Test
+    void medium() {
+      assertThat(histogram.get(MEDIUM)).isEqualTo(1);
+    }
+
+    @Test
+    void total() {
+      assertThat(histogram.getTotal()).isEqualTo(5);
+    }
+  }
+}
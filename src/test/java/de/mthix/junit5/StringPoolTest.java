@@ -0,0 +1,89 @@
+package de.mthix.junit5;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class StringPoolTest {
+
+  private StringPool stringPool;
+
+  @BeforeEach
+  void initStringPool() {
+    stringPool = new StringPool(64);
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, -1, (1 << 30) + 1})
+  void invalidCapacity(int capacity) {
+    assertThatThrownBy(() -> new StringPool(capacity)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @ParameterizedTest
+  @CsvSource({"1, 1", "3, 4", "64, 64"})
+  void capacity(int requested, int actual) {
+    assertThat(new StringPool(requested).capacity()).isEqualTo(actual);
+  }
+
+  @Nested
+  class Intern {
+
+    private String first;
+    private String second;
+
+    @BeforeEach
+    void internDuplicates() {
+      first = stringPool.intern(new String("hello"));
+      second = stringPool.intern(new String("hello"));
+    }
+
+    @Test
+    void canonicalized() {
+      assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void hitRate() {
+      assertThat(stringPool.getHitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    void savedBytes() {
+      assertThat(stringPool.getSavedBytes()).isEqualTo(45);
+    }
+
+    @Test
+    void sameInstanceNoSaving() {
+      stringPool.intern(first);
+
+      assertThat(stringPool.getSavedBytes()).isEqualTo(45);
+    }
+
+    @Test
+    void nullPassedThrough() {
+      assertThat(stringPool.intern(null)).isNull();
+    }
+  }
+
+  @Test
+  void internAll() {
+    String[] strings = stringPool.internAll(new String[]{new String("a"), "b", new String("a")});
+
+    assertThat(strings[2]).isSameAs(strings[0]);
+  }
+
+  @Test
+  void boundedByCapacity() {
+    StringPool single = new StringPool(1);
+    single.intern("a");
+    single.intern("b");
+
+    assertThat(single.intern(new String("a"))).isNotSameAs("a");
+  }
+}
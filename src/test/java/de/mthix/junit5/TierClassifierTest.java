@@ -0,0 +1,198 @@
+package de.mthix.junit5;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static de.mthix.junit5.TierClassifier.INVALID_TIER;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TierClassifierTest {
+
+  @Nested
+  class WeightLevels {
+
+    @ParameterizedTest
+    @ValueSource(ints = {Integer.MIN_VALUE, -1, 0, 1, 10, 11, 99, 100, 101, 5000, Integer.MAX_VALUE})
+    void sameAsWeightLevelOrdinal(int weight) {
+      assertThat(TierClassifier.weightLevels().classify(weight)).isEqualTo(UT02_WhatTo.weightLevelOrdinal(weight));
+    }
+
+    @Test
+    void dense() {
+      assertThat(TierClassifier.WEIGHT_LEVELS.isDense()).isTrue();
+    }
+
+    @Test
+    void sameAsBulkClassification() {
+      int[] weights = IntStream.rangeClosed(-5, 205).toArray();
+      byte[] expected = new byte[weights.length];
+      byte[] actual = new byte[weights.length];
+      TierClassifier.weightLevels().classify(weights, expected);
+      UT02_WhatTo.calculateWeightLevels(weights, actual);
+
+      assertThat(actual).containsExactly(expected);
+    }
+  }
+
+  @Nested
+  class Search {
+
+    private TierClassifier.Table dense;
+    private TierClassifier.Table sparse;
+
+    @BeforeEach
+    void initTables() {
+      int[] thresholds = IntStream.range(1, 40).map(i -> i * 50 + i % 3).toArray();
+      dense = new TierClassifier.Table(-20, thresholds, true);
+      sparse = new TierClassifier.Table(-20, thresholds, false);
+    }
+
+    @Test
+    void sameAsDenseLookup() {
+      assertThat(IntStream.rangeClosed(-100, 2500).map(sparse::classify).toArray()).isEqualTo(IntStream.rangeClosed(-100, 2500).map(dense::classify).toArray());
+    }
+
+    @Test
+    void invalidBelowMinimum() {
+      assertThat(sparse.classify(-21)).isEqualTo(INVALID_TIER);
+    }
+
+    @Test
+    void highestTierAboveLastThreshold() {
+      assertThat(sparse.classify(Integer.MAX_VALUE)).isEqualTo(39);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 4, 5, 7, 8, 9, 16, 17})
+    void anyTierCount(int thresholdCount) {
+      TierClassifier.Table table = new TierClassifier.Table(0, IntStream.rangeClosed(1, thresholdCount).map(i -> i * 10).toArray(), false);
+
+      assertThat(IntStream.of(0, 10, 11, thresholdCount * 10, thresholdCount * 10 + 1).map(table::classify).toArray())
+          .containsExactly(0, 0, 1, thresholdCount - 1, thresholdCount);
+    }
+  }
+
+  @Nested
+  class InvalidTable {
+
+    @Test
+    void unsorted() {
+      assertThatThrownBy(() -> TierClassifier.Table.of(0, 100, 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void duplicate() {
+      assertThatThrownBy(() -> TierClassifier.Table.of(0, 10, 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void belowMinimum() {
+      assertThatThrownBy(() -> TierClassifier.Table.of(5, 4)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void tooManyTiers() {
+      assertThatThrownBy(() -> TierClassifier.Table.of(0, IntStream.range(0, TierClassifier.MAX_TIERS).toArray()))
+          .isInstanceOf(IllegalArgumentException.class);
+    }
+  }
+
+  @Test
+  void singleTier() {
+    assertThat(TierClassifier.Table.of(0).classify(42)).isZero();
+  }
+
+  @Test
+  void sparseWhenRangeTooLarge() {
+    assertThat(TierClassifier.Table.of(0, TierClassifier.DENSE_LIMIT).isDense()).isFalse();
+  }
+
+  @Nested
+  class Reload {
+
+    private TierClassifier classifier;
+
+    @BeforeEach
+    void reload() {
+      classifier = TierClassifier.weightLevels();
+
+      classifier.reload(0, 1, 2, 3);
+    }
+
+    @Test
+    void newTable() {
+      assertThat(classifier.classify(3)).isEqualTo(2);
+    }
+
+    @Test
+    void previousReturned() {
+      assertThat(classifier.swap(TierClassifier.WEIGHT_LEVELS).getTierCount()).isEqualTo(4);
+    }
+  }
+
+  @Test
+  void consistentDuringConcurrentSwaps() throws Exception {
+    TierClassifier classifier = TierClassifier.weightLevels();
+    TierClassifier.Table fine = TierClassifier.Table.of(0, 1, 2, 3, 4, 5);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    List<Future<Boolean>> readers = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      readers.add(executor.submit(() -> {
+        boolean consistent = true;
+        for (int j = 0; j < 100_000; j++) {
+          TierClassifier.Table table = classifier.getTable();
+          consistent &= table.classify(50) == (table == fine ? 5 : 1);
+        }
+        return consistent;
+      }));
+    }
+    Future<?> writer = executor.submit(() -> {
+      for (int j = 0; j < 10_000; j++) {
+        classifier.swap(j % 2 == 0 ? fine : TierClassifier.WEIGHT_LEVELS);
+      }
+    });
+    writer.get(10, SECONDS);
+    List<Boolean> results = new ArrayList<>();
+    for (Future<Boolean> reader : readers) {
+      results.add(reader.get(10, SECONDS));
+    }
+    executor.shutdown();
+
+    assertThat(results).containsOnly(true);
+  }
+
+  @Nested
+  class ClassifyBulk {
+
+    private final byte[] tiers = new byte[4];
+
+    private int invalid;
+
+    @BeforeEach
+    void classify() {
+      invalid = TierClassifier.weightLevels().classify(new int[]{5, -3, 50, 500}, tiers);
+    }
+
+    @Test
+    void tiers() {
+      assertThat(tiers).containsExactly(0, -1, 1, 2);
+    }
+
+    @Test
+    void invalidCounted() {
+      assertThat(invalid).isEqualTo(1);
+    }
+  }
+}
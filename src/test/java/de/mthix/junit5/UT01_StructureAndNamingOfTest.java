@@ -4,6 +4,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -105,6 +112,39 @@ public class UT01_StructureAndNamingOfTest {
     }
   }
 
+  @Nested
+  class Interning {
+
+    private StringPool stringPool;
+
+    @BeforeEach
+    void initStringPool() {
+      stringPool = new StringPool(16);
+      ut01.setStringPool(stringPool);
+    }
+
+    @Test
+    void toListCanonicalized() {
+      List<String> list = ut01.toList(new String("x"), new String("x"));
+
+      assertThat(list.get(1)).isSameAs(list.get(0));
+    }
+
+    @Test
+    void toArrayCanonicalized() {
+      String pooled = ut01.toArray(new String("y"))[0];
+
+      assertThat(ut01.toArray(new String("y"))[0]).isSameAs(pooled);
+    }
+
+    @Test
+    void hitsCounted() {
+      ut01.toList(new String("z"), new String("z"), new String("z"));
+
+      assertThat(stringPool.getHits()).isEqualTo(2);
+    }
+  }
+
   @Nested
   class GetComplexity {
 
@@ -142,4 +182,64 @@ public class UT01_StructureAndNamingOfTest {
       assertThat(ut01.getComplexity()).isEqualTo(1);
     }
   }
+
+  @Nested
+  class GetApproximateComplexity {
+
+    @Test
+    void notThreadSafe() {
+      ut01.increaseComplexity();
+
+      assertThat(ut01.getApproximateComplexity()).isEqualTo(1);
+    }
+
+    @Test
+    void threadSafeFirstRead() {
+      UT01_StructureAndNamingOf threadSafe = new UT01_StructureAndNamingOf(true);
+      threadSafe.increaseComplexity();
+      threadSafe.increaseComplexity();
+      threadSafe.increaseComplexity();
+
+      assertThat(threadSafe.getApproximateComplexity()).isEqualTo(3);
+    }
+  }
+
+  @Nested
+  class ThreadSafe {
+
+    private final int threads    = Runtime.getRuntime().availableProcessors() * 2;
+    private final int increments = 100_000;
+
+    @BeforeEach
+    void increaseConcurrently() throws Exception {
+      ut01 = new UT01_StructureAndNamingOf(true);
+      ExecutorService executor = Executors.newFixedThreadPool(threads);
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        futures.add(executor.submit(() -> {
+          start.await();
+          for (int i = 0; i < increments; i++) {
+            ut01.increaseComplexity();
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      executor.shutdown();
+    }
+
+    @Test
+    void noLostIncrements() {
+      assertThat(ut01.getComplexity()).isEqualTo(threads * increments);
+    }
+
+    @Test
+    void changed() {
+      assertThat(ut01.isChanged()).isTrue();
+    }
+  }
 }
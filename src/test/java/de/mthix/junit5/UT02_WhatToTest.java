@@ -6,10 +6,15 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.stream.IntStream;
+
 import static de.mthix.junit5.UT02_WhatTo.*;
 import static de.mthix.junit5.UT02_WhatTo.WeightLevel.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
 
 /**
  * <h2>What to test</h2>
@@ -62,6 +67,13 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
  * <p><strong>Example</strong>: {@link Reverse#threeElements()} ()} and {@link Sorted#threeElements()}</p>
  * <br>
  *
+ * <h3>Guard hot paths with performance budgets</h3>
+ * <p><strong>What</strong>: annotate tests of performance-critical methods with {@link PerformanceBudget}.</p>
+ * <p><strong>Why</strong>: a change that makes a method ten times slower or allocation-heavy is still functionally correct, so only a budget catches it.</p>
+ * <p>Keep assertions out of the measured body and choose budgets with enough headroom for slow build machines. The timing report is written to {@value PerformanceBudgetExtension#DEFAULT_REPORT}.</p>
+ * <p><strong>Example</strong>: {@link CalculateWeightLevel#withinBudget()}</p>
+ * <br>
+ *
  * <h3>Different fields should contain different values</h3>
  * <p><strong>What</strong>: in tests or initializations where attributes are set, each attribute should have a different value.</p>
  * <p><strong>Why</strong>: this catches accidental swaps and makes fields easier identifiable in outputs.</p>
@@ -125,6 +137,125 @@ public class UT02_WhatToTest {
     void invalid(int weight) {
       assertThatThrownBy(() -> calculateWeightLevel(weight)).isInstanceOf(IllegalArgumentException.class);
     }
+
+    @Test
+    @PerformanceBudget(maxNanos = 100_000, maxAllocatedBytes = 64)
+    void withinBudget() {
+      for (int weight = 0; weight < 200; weight++) {
+        calculateWeightLevel(weight);
+      }
+    }
+  }
+
+  @Nested
+  class TryCalculateWeightLevel {
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 10, 11, 100, 101, Integer.MAX_VALUE})
+    void matchesCalculateWeightLevel(int weight) {
+      assertThat(tryCalculateWeightLevel(weight)).isEqualTo(calculateWeightLevel(weight).ordinal());
+    }
+
+    @Test
+    void invalid() {
+      assertThat(tryCalculateWeightLevel(-1)).isEqualTo(INVALID_WEIGHT_LEVEL);
+    }
+
+    @Test
+    void invalidCounted() {
+      long before = InvalidInputCounter.WEIGHTS.sum();
+      tryCalculateWeightLevel(-1);
+
+      assertThat(InvalidInputCounter.WEIGHTS.sum()).isGreaterThan(before);
+    }
+
+    @Test
+    @PerformanceBudget(maxNanos = 100_000, maxAllocatedBytes = 64)
+    void invalidWithinBudget() {
+      for (int weight = -200; weight < 0; weight++) {
+        tryCalculateWeightLevel(weight);
+      }
+    }
+  }
+
+  @Nested
+  class WeightLevelOrdinal {
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 10, 11, 100, 101, Integer.MAX_VALUE})
+    void matchesCalculateWeightLevel(int weight) {
+      assertThat(weightLevelOrdinal(weight)).isEqualTo(calculateWeightLevel(weight).ordinal());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {Integer.MIN_VALUE, -1})
+    void invalid(int weight) {
+      assertThat(weightLevelOrdinal(weight)).isEqualTo(INVALID_WEIGHT_LEVEL);
+    }
+  }
+
+  @Nested
+  class CalculateWeightLevels {
+
+    private final int[] weights = {3, 50, -4, 200, 10, 101, 11};
+
+    private byte[]               levels;
+    private WeightLevelHistogram histogram;
+
+    @Nested
+    class Sequential {
+
+      @BeforeEach
+      void classify() {
+        levels = new byte[weights.length];
+        histogram = calculateWeightLevels(weights, levels);
+      }
+
+      @Test
+      void levels() {
+        assertThat(levels).containsExactly(0, 1, -1, 2, 0, 2, 1);
+      }
+
+      @Test
+      void histogram() {
+        assertThat(histogram.toMap()).containsOnly(entry(LIGHT, 2L), entry(MEDIUM, 2L), entry(HEAVY, 2L));
+      }
+
+      @Test
+      void invalid() {
+        assertThat(histogram.getInvalid()).isEqualTo(1);
+      }
+    }
+
+    @Nested
+    class Parallel {
+
+      @BeforeEach
+      void classify() {
+        levels = new byte[weights.length];
+        histogram = calculateWeightLevels(weights, levels, 2);
+      }
+
+      @Test
+      void levels() {
+        assertThat(levels).containsExactly(0, 1, -1, 2, 0, 2, 1);
+      }
+
+      @Test
+      void total() {
+        assertThat(histogram.getTotal()).isEqualTo(7);
+      }
+    }
+
+    @Test
+    void stream() {
+      assertThat(calculateWeightLevels(IntStream.of(weights).parallel()).get(HEAVY)).isEqualTo(2);
+    }
+
+    @Test
+    void outputTooSmall() {
+      assertThatThrownBy(() -> calculateWeightLevels(weights, new byte[3])).isInstanceOf(IllegalArgumentException.class);
+    }
   }
 
   @Nested
@@ -134,6 +265,34 @@ public class UT02_WhatToTest {
     void threeElements() {
       assertThat(reverseNumbers(3, 2, 1)).containsExactly(1, 2, 3);
     }
+
+    @Test
+    void primitiveArray() {
+      assertThat(reverseNumbers(new int[]{5, 7, 6, 8})).containsExactly(8, 6, 7, 5);
+    }
+
+    @Test
+    void directIntBuffer() {
+      IntBuffer numbers = ByteBuffer.allocateDirect(3 * Integer.BYTES).asIntBuffer().put(new int[]{4, 9, 2}).flip();
+
+      reverseNumbers(numbers);
+
+      assertThat(numbers).isEqualTo(IntBuffer.wrap(new int[]{2, 9, 4}));
+    }
+  }
+
+  @Nested
+  class ReversedView {
+
+    @Test
+    void threeElements() {
+      assertThat(reversedView(new int[]{6, 1, 5})).containsExactly(5, 1, 6);
+    }
+
+    @Test
+    void empty() {
+      assertThat(reversedView(new int[0])).isEmpty();
+    }
   }
 
   @Nested
@@ -144,5 +303,34 @@ public class UT02_WhatToTest {
       // not: assertThat(sortNumbers(2, 3, 1)).containsExactly(1, 2, 3);
       assertThat(sortNumbers(2, 3, 1, 4)).containsExactly(1, 2, 3, 4);
     }
+
+    @Test
+    void primitiveArray() {
+      assertThat(sortNumbers(new int[]{9, -3, 5, 0})).containsExactly(-3, 0, 5, 9);
+    }
+
+    @Test
+    void aboveParallelThreshold() {
+      assertThat(sortNumbers(new int[]{8, 2, 6, 4, 1}, 2)).containsExactly(1, 2, 4, 6, 8);
+    }
+
+    @Test
+    void heapIntBufferRemaining() {
+      IntBuffer numbers = IntBuffer.wrap(new int[]{7, 3, 2, 1});
+      numbers.position(1);
+
+      sortNumbers(numbers);
+
+      assertThat(numbers.array()).containsExactly(7, 1, 2, 3);
+    }
+
+    @Test
+    void directIntBuffer() {
+      IntBuffer numbers = ByteBuffer.allocateDirect(3 * Integer.BYTES).asIntBuffer().put(new int[]{30, 10, 20}).flip();
+
+      sortNumbers(numbers);
+
+      assertThat(numbers).isEqualTo(IntBuffer.wrap(new int[]{10, 20, 30}));
+    }
   }
 }
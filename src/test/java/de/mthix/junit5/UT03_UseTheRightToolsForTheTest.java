@@ -13,8 +13,13 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.AssertionErrors;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
 import static de.mthix.junit5.UT03_UseTheRightToolsFor.convertSizeCode;
+import static de.mthix.junit5.UT03_UseTheRightToolsFor.tryConvertSizeCode;
 import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.verify;
@@ -102,6 +107,71 @@ public class UT03_UseTheRightToolsForTheTest {
         assertThat(result).isSameAs(rc);
       }
     }
+
+    @Nested
+    class Instrumented {
+
+      private ActorMetrics metrics;
+
+      @BeforeEach
+      void initMetrics() {
+        metrics = new ActorMetrics();
+        ut03.setMetrics(metrics);
+      }
+
+      @Test
+      void recordedLatency() {
+        when(mockActor.doSomething()).thenReturn(1);
+
+        ut03.act();
+
+        assertThat(metrics.getLatency().getCount()).isEqualTo(1);
+      }
+
+      @Test
+      void recordedFailure() {
+        when(mockActor.doSomething()).thenThrow(new IllegalStateException());
+
+        assertThatThrownBy(() -> ut03.act()).isInstanceOf(IllegalStateException.class);
+
+        assertThat(metrics.getFailures()).isEqualTo(1);
+      }
+    }
+  }
+
+  @Nested
+  class ActAsync {
+
+    @Test
+    void passedThroughRc() throws Exception {
+      when(mockActor.doSomething()).thenReturn(3);
+
+      assertThat(ut03.actAsync().get(5, SECONDS)).isEqualTo(3);
+    }
+
+    @Nested
+    class Concurrent {
+
+      private final int calls = 2_000;
+
+      @BeforeEach
+      void actConcurrently() {
+        when(mockActor.doSomething()).thenReturn(1);
+        ut03.setExecutor(BoundedExecutor.virtualThreads(16));
+
+        CompletableFuture.allOf(IntStream.range(0, calls).mapToObj(i -> ut03.actAsync()).toArray(CompletableFuture[]::new)).join();
+      }
+
+      @Test
+      void counted() {
+        assertThat(ut03.getActCounter()).isEqualTo(calls);
+      }
+
+      @Test
+      void acted() {
+        assertThat(ut03.isActed()).isTrue();
+      }
+    }
   }
 
   @Nested
@@ -113,6 +183,45 @@ public class UT03_UseTheRightToolsForTheTest {
     void invalid(String code) {
       assertThatThrownBy(() -> convertSizeCode(code)).isInstanceOf(IllegalArgumentException.class).hasMessageContaining(String.valueOf(code));
     }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"s", "m", "l"})
+    @PerformanceBudget(maxNanos = 10_000, maxAllocatedBytes = 64)
+    void withinBudget(String code) {
+      convertSizeCode(code);
+    }
+  }
+
+  @Nested
+  class TryConvertSizeCode {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"s", "m", "l"})
+    void matchesConvertSizeCode(String code) {
+      assertThat(tryConvertSizeCode(code)).isEqualTo(convertSizeCode(code).ordinal());
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {"a", "C", "sm"})
+    void invalid(String code) {
+      assertThat(tryConvertSizeCode(code)).isEqualTo(SizeCodeDecoder.INVALID_SIZE);
+    }
+
+    @Test
+    void invalidCounted() {
+      long before = InvalidInputCounter.SIZE_CODES.sum();
+      tryConvertSizeCode("x");
+
+      assertThat(InvalidInputCounter.SIZE_CODES.sum()).isGreaterThan(before);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"a", "f", "C"})
+    @PerformanceBudget(maxNanos = 10_000, maxAllocatedBytes = 64)
+    void invalidWithinBudget(String code) {
+      tryConvertSizeCode(code);
+    }
   }
 
   @Nested
@@ -0,0 +1,83 @@
+package de.mthix.junit5;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static de.mthix.junit5.UT02_WhatTo.WeightLevel.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+public class WeightLevelHistogramTest {
+
+  private WeightLevelHistogram histogram;
+
+  @BeforeEach
+  void initHistogram() {
+    histogram = new WeightLevelHistogram();
+    histogram.accept(5);
+    histogram.accept(42);
+    histogram.accept(43);
+    histogram.accept(-8);
+  }
+
+  @Nested
+  class Defaults {
+
+    @Test
+    void empty() {
+      assertThat(new WeightLevelHistogram().getTotal()).isZero();
+    }
+  }
+
+  @Nested
+  class Get {
+
+    @Test
+    void medium() {
+      assertThat(histogram.get(MEDIUM)).isEqualTo(2);
+    }
+
+    @Test
+    void uncounted() {
+      assertThat(histogram.get(HEAVY)).isZero();
+    }
+  }
+
+  @Test
+  void getInvalid() {
+    assertThat(histogram.getInvalid()).isEqualTo(1);
+  }
+
+  @Test
+  void getTotal() {
+    assertThat(histogram.getTotal()).isEqualTo(4);
+  }
+
+  @Test
+  void toMap() {
+    assertThat(histogram.toMap()).containsExactly(entry(LIGHT, 1L), entry(MEDIUM, 2L), entry(HEAVY, 0L));
+  }
+
+  @Nested
+  class Merge {
+
+    @BeforeEach
+    void mergeOther() {
+      WeightLevelHistogram other = new WeightLevelHistogram();
+      other.accept(500);
+      other.accept(-1);
+      histogram.merge(other);
+    }
+
+    @Test
+    void heavy() {
+      assertThat(histogram.get(HEAVY)).isEqualTo(1);
+    }
+
+    @Test
+    void invalid() {
+      assertThat(histogram.getInvalid()).isEqualTo(2);
+    }
+  }
+}
@@ -0,0 +1,245 @@
+package de.mthix.junit5;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static de.mthix.junit5.UT02_WhatTo.WeightLevel.*;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class WeightLevelRegistryTest {
+
+  private WeightLevelRegistry registry;
+  private UT02_WhatTo         light;
+  private UT02_WhatTo         medium;
+
+  @BeforeEach
+  void initRegistry() {
+    registry = new WeightLevelRegistry();
+    light = new UT02_WhatTo(1, 4);
+    medium = new UT02_WhatTo(2, 54);
+    registry.register(light);
+    registry.register(medium);
+  }
+
+  @Nested
+  class Register {
+
+    @Test
+    void counted() {
+      assertThat(registry.getCount(MEDIUM)).isEqualTo(1);
+    }
+
+    @Test
+    void summed() {
+      assertThat(registry.getSum(LIGHT)).isEqualTo(4);
+    }
+
+    @Test
+    void twice() {
+      assertThatThrownBy(() -> registry.register(light)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void invalidValue() {
+      registry.register(new UT02_WhatTo(3, -5));
+
+      assertThat(registry.getInvalidCount()).isEqualTo(1);
+    }
+  }
+
+  @Nested
+  class Unregister {
+
+    @BeforeEach
+    void unregisterMedium() {
+      registry.unregister(medium);
+    }
+
+    @Test
+    void uncounted() {
+      assertThat(registry.getCount(MEDIUM)).isZero();
+    }
+
+    @Test
+    void noLongerTracked() {
+      medium.setValue(200);
+
+      assertThat(registry.getCount(HEAVY)).isZero();
+    }
+
+    @Test
+    void notRegistered() {
+      assertThatThrownBy(() -> registry.unregister(medium)).isInstanceOf(IllegalStateException.class);
+    }
+  }
+
+  @Nested
+  class SetValue {
+
+    @BeforeEach
+    void crossBoundary() {
+      medium.setValue(150);
+    }
+
+    @Test
+    void oldLevelDecreased() {
+      assertThat(registry.getCount(MEDIUM)).isZero();
+    }
+
+    @Test
+    void newLevelIncreased() {
+      assertThat(registry.getCount(HEAVY)).isEqualTo(1);
+    }
+
+    @Test
+    void sumMoved() {
+      assertThat(registry.getSum(HEAVY)).isEqualTo(150);
+    }
+
+    @Test
+    void valueSet() {
+      assertThat(medium.getValue()).isEqualTo(150);
+    }
+  }
+
+  @Test
+  void snapshotAverage() {
+    registry.register(new UT02_WhatTo(3, 8));
+
+    assertThat(registry.snapshot().getAverage(LIGHT)).isEqualTo(6.0);
+  }
+
+  @Nested
+  class ConcurrentSetValue {
+
+    private final List<UT02_WhatTo> records = new ArrayList<>();
+
+    @BeforeEach
+    void setValuesConcurrently() throws Exception {
+      registry = new WeightLevelRegistry();
+      for (int i = 0; i < 64; i++) {
+        UT02_WhatTo record = new UT02_WhatTo(i, i);
+        registry.register(record);
+        records.add(record);
+      }
+      int threads = Runtime.getRuntime().availableProcessors() * 2;
+      ExecutorService executor = Executors.newFixedThreadPool(threads);
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        futures.add(executor.submit(() -> {
+          start.await();
+          ThreadLocalRandom random = ThreadLocalRandom.current();
+          for (int i = 0; i < 50_000; i++) {
+            records.get(random.nextInt(records.size())).setValue(random.nextInt(-10, 200));
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      executor.shutdown();
+    }
+
+    @Test
+    void heavyCountMatchesRecords() {
+      long heavy = records.stream().filter(record -> record.getValue() > 100).count();
+
+      assertThat(registry.snapshot().getCount(HEAVY)).isEqualTo(heavy);
+    }
+
+    @Test
+    void mediumSumMatchesRecords() {
+      long sum = records.stream().mapToLong(UT02_WhatTo::getValue).filter(value -> value > 10 && value <= 100).sum();
+
+      assertThat(registry.snapshot().getSum(MEDIUM)).isEqualTo(sum);
+    }
+
+    @Test
+    void totalUnchanged() {
+      assertThat(registry.snapshot().getTotal()).isEqualTo(records.size());
+    }
+  }
+
+  @Nested
+  class SnapshotDuringWrites {
+
+    private final int        snapshots = 1000;
+    private final List<Long> totals    = new ArrayList<>();
+
+    @Test
+    void optimistic() throws Exception {
+      takeSnapshotsWhileWriting(new WeightLevelRegistry());
+
+      assertThat(totals).hasSize(snapshots).containsOnly(64L);
+    }
+
+    @Test
+    void blocking() throws Exception {
+      takeSnapshotsWhileWriting(new WeightLevelRegistry(0));
+
+      assertThat(totals).hasSize(snapshots).containsOnly(64L);
+    }
+
+    @Test
+    void blockingCounted() throws Exception {
+      WeightLevelRegistry blockingRegistry = new WeightLevelRegistry(0);
+      takeSnapshotsWhileWriting(blockingRegistry);
+
+      assertThat(blockingRegistry.getBlockingSnapshots()).isEqualTo(snapshots);
+    }
+
+    @Test
+    void invalidMaxOptimisticReads() {
+      assertThatThrownBy(() -> new WeightLevelRegistry(-1)).isInstanceOf(IllegalArgumentException.class).hasMessage("Wrong max optimistic reads: -1");
+    }
+
+    private void takeSnapshotsWhileWriting(WeightLevelRegistry registry) throws Exception {
+      List<UT02_WhatTo> records = new ArrayList<>();
+      for (int i = 0; i < 64; i++) {
+        UT02_WhatTo record = new UT02_WhatTo(i, i);
+        registry.register(record);
+        records.add(record);
+      }
+      int writers = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+      ExecutorService executor = Executors.newFixedThreadPool(writers + 1);
+      AtomicBoolean running = new AtomicBoolean(true);
+      CountDownLatch started = new CountDownLatch(writers);
+      try {
+        for (int t = 0; t < writers; t++) {
+          executor.submit(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            started.countDown();
+            while (running.get()) {
+              records.get(random.nextInt(records.size())).setValue(random.nextInt(-10, 200));
+            }
+          });
+        }
+        started.await();
+        Future<?> reader = executor.submit(() -> {
+          for (int i = 0; i < snapshots; i++) {
+            totals.add(registry.snapshot().getTotal());
+          }
+        });
+        reader.get(60, SECONDS);
+      } finally {
+        running.set(false);
+        executor.shutdown();
+      }
+    }
+  }
+}
@@ -0,0 +1,557 @@
+package de.mthix.junit5;
+
+import de.mthix.junit5.WhatToChangeLog.Durability;
+import de.mthix.junit5.WhatToChangeLog.Recovery;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static de.mthix.junit5.UT02_WhatTo.WeightLevel.*;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class WhatToChangeLogTest {
+
+  @TempDir
+  Path tempDir;
+
+  private Path logDir;
+  private Path snapshot;
+
+  @BeforeEach
+  void resolvePaths() {
+    logDir = tempDir.resolve("log");
+    snapshot = tempDir.resolve("what-to.snapshot");
+  }
+
+  private List<Path> segments() throws IOException {
+    try (Stream<Path> files = Files.list(logDir)) {
+      return files.sorted().collect(Collectors.toList());
+    }
+  }
+
+  private interface Writer {
+
+    void write(int writer) throws IOException;
+  }
+
+  private interface IOAction {
+
+    void run() throws IOException;
+  }
+
+  private static void runConcurrently(int writers, Writer body) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(writers);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+    try {
+      for (int i = 0; i < writers; i++) {
+        int writer = i;
+        futures.add(executor.submit(() -> {
+          start.await();
+          body.write(writer);
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get(30, SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Nested
+  class Constructor {
+
+    @Test
+    void segmentTooSmall() {
+      assertThatThrownBy(() -> new WhatToChangeLog(logDir, Durability.PER_WRITE, 8, Duration.ofMillis(1)))
+          .isInstanceOf(IllegalArgumentException.class).hasMessage("Wrong segment size: 8");
+    }
+
+    @Test
+    void startsFreshSegment() throws IOException {
+      new WhatToChangeLog(logDir, Durability.PER_WRITE).close();
+      new WhatToChangeLog(logDir, Durability.PER_WRITE).close();
+
+      assertThat(segments()).hasSize(2);
+    }
+  }
+
+  @Nested
+  class PerWrite {
+
+    private WhatToChangeLog log;
+
+    @BeforeEach
+    void openLog() throws IOException {
+      log = new WhatToChangeLog(logDir, Durability.PER_WRITE);
+    }
+
+    @AfterEach
+    void closeLog() throws IOException {
+      log.close();
+    }
+
+    @Test
+    void durableOnReturn() throws IOException {
+      log.append(7, 54);
+
+      assertThat(log.getDurable()).isEqualTo(1);
+    }
+
+    @Test
+    void syncPerWrite() throws IOException {
+      log.append(7, 54);
+      log.append(8, 3);
+
+      assertThat(log.getSyncs()).isEqualTo(2);
+    }
+
+    @Test
+    void closed() throws IOException {
+      log.close();
+
+      assertThatThrownBy(() -> log.append(7, 54)).isInstanceOf(IOException.class).hasMessageStartingWith("Closed: ");
+    }
+  }
+
+  @Nested
+  class Batched {
+
+    private WhatToChangeLog log;
+
+    @BeforeEach
+    void openLog() throws IOException {
+      log = new WhatToChangeLog(logDir, Durability.BATCHED, WhatToChangeLog.DEFAULT_SEGMENT_SIZE, Duration.ofMillis(50));
+    }
+
+    @AfterEach
+    void closeLog() throws IOException {
+      log.close();
+    }
+
+    @Test
+    void durableOnReturn() throws IOException {
+      log.append(7, 54);
+
+      assertThat(log.getDurable()).isEqualTo(1);
+    }
+
+    @Test
+    void groupCommit() throws Exception {
+      int writers = 8;
+      runConcurrently(writers, writer -> log.append(writer, writer));
+
+      assertThat(log.getSyncs()).isLessThan(writers);
+    }
+  }
+
+  @Nested
+  class Async {
+
+    private WhatToChangeLog log;
+
+    @BeforeEach
+    void openLog() throws IOException {
+      log = new WhatToChangeLog(logDir, Durability.ASYNC, WhatToChangeLog.DEFAULT_SEGMENT_SIZE, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void closeLog() throws IOException {
+      log.close();
+    }
+
+    @Test
+    void notDurableOnReturn() throws IOException {
+      log.append(7, 54);
+
+      assertThat(log.getDurable()).isZero();
+    }
+
+    @Test
+    void durableAfterFlush() throws IOException {
+      log.append(7, 54);
+      log.flush();
+
+      assertThat(log.getDurable()).isEqualTo(1);
+    }
+
+    @Test
+    void fullBufferFromManyWriters() throws Exception {
+      int writers = 4;
+      int perWriter = 3000;
+      runConcurrently(writers, writer -> {
+        for (int i = 0; i < perWriter; i++) {
+          log.append(writer, i);
+        }
+      });
+
+      assertThat(log.getAppended()).isEqualTo((long) writers * perWriter);
+    }
+
+    @Test
+    void flushedOnClose() throws IOException {
+      log.append(7, 54);
+      log.close();
+
+      assertThat(WhatToChangeLog.recover(snapshot, logDir).getReplayed()).isEqualTo(1);
+    }
+  }
+
+  @Nested
+  class WriteFailure {
+
+    private final List<FileChannel> channels = new ArrayList<>();
+
+    private WhatToChangeLog log;
+
+    @BeforeEach
+    void openLog() throws IOException {
+      log = open(Durability.ASYNC);
+    }
+
+    @AfterEach
+    void closeLog() {
+      try {
+        log.close();
+      } catch (IOException e) {
+        // expected after an injected failure
+      }
+    }
+
+    @Test
+    void flushFails() throws IOException {
+      log.append(7, 54);
+      breakSegment();
+
+      assertThatThrownBy(log::flush).isInstanceOf(ClosedChannelException.class);
+    }
+
+    @Test
+    void sticky() throws IOException {
+      log.append(7, 54);
+      breakSegment();
+      IOException failure = catchIOException(log::flush);
+
+      assertThatThrownBy(() -> log.append(8, 60)).isSameAs(failure);
+    }
+
+    @Test
+    void notDurable() throws IOException {
+      log.append(7, 54);
+      breakSegment();
+      catchIOException(log::flush);
+
+      assertThat(log.getDurable()).isZero();
+    }
+
+    @Test
+    void closeFails() throws IOException {
+      log.append(7, 54);
+      breakSegment();
+
+      assertThatThrownBy(log::close).isInstanceOf(ClosedChannelException.class);
+    }
+
+    @Test
+    void batchedWaiterReleasedOnClose() throws Exception {
+      log.close();
+      log = open(Durability.BATCHED);
+      ExecutorService executor = Executors.newSingleThreadExecutor();
+      try {
+        Future<?> writer = executor.submit(() -> {
+          log.append(7, 54);
+          return null;
+        });
+        while (log.getAppended() == 0) {
+          Thread.onSpinWait();
+        }
+        breakSegment();
+        catchIOException(log::close);
+
+        assertThatThrownBy(() -> writer.get(10, SECONDS)).hasCauseInstanceOf(ClosedChannelException.class);
+      } finally {
+        executor.shutdownNow();
+      }
+    }
+
+    private WhatToChangeLog open(Durability durability) throws IOException {
+      return new WhatToChangeLog(logDir, durability, WhatToChangeLog.DEFAULT_SEGMENT_SIZE, Duration.ofHours(1), file -> {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        channels.add(channel);
+        return channel;
+      });
+    }
+
+    private void breakSegment() throws IOException {
+      channels.get(channels.size() - 1).close();
+    }
+
+    private IOException catchIOException(IOAction action) {
+      try {
+        action.run();
+      } catch (IOException e) {
+        return e;
+      }
+      throw new AssertionError("Expected an IOException");
+    }
+  }
+
+  @Nested
+  class Segments {
+
+    @Test
+    void roll() throws IOException {
+      try (WhatToChangeLog log = new WhatToChangeLog(logDir, Durability.PER_WRITE, WhatToChangeLog.HEADER_SIZE + 2 * WhatToChangeLog.RECORD_SIZE,
+          Duration.ofMillis(1))) {
+        for (int i = 0; i < 5; i++) {
+          log.append(i, i);
+        }
+      }
+
+      assertThat(segments()).hasSize(3);
+    }
+
+    @Test
+    void replayAcrossSegments() throws IOException {
+      try (WhatToChangeLog log = new WhatToChangeLog(logDir, Durability.PER_WRITE, WhatToChangeLog.HEADER_SIZE + 2 * WhatToChangeLog.RECORD_SIZE,
+          Duration.ofMillis(1))) {
+        for (int i = 0; i < 5; i++) {
+          log.append(i, 100 + i);
+        }
+      }
+
+      assertThat(WhatToChangeLog.recover(snapshot, logDir).getColumns().getValue(4)).isEqualTo(104);
+    }
+  }
+
+  @Nested
+  class Checkpoint {
+
+    private WhatToColumns columns;
+
+    @BeforeEach
+    void checkpoint() throws IOException {
+      columns = new WhatToColumns(4);
+      try (WhatToChangeLog log = new WhatToChangeLog(logDir, Durability.PER_WRITE)) {
+        log.append(7, 54);
+        columns.append(7, 54);
+        log.checkpoint(snapshot, columns);
+        log.append(8, 3);
+      }
+    }
+
+    @Test
+    void oldSegmentsDeleted() throws IOException {
+      assertThat(segments()).hasSize(1);
+    }
+
+    @Test
+    void snapshotWritten() throws IOException {
+      assertThat(WhatToSnapshot.open(snapshot).size()).isEqualTo(1);
+    }
+
+    @Test
+    void replayOnTopOfSnapshot() throws IOException {
+      Recovery recovery = WhatToChangeLog.recover(snapshot, logDir);
+
+      assertThat(recovery.getColumns().size()).isEqualTo(2);
+    }
+
+    @Test
+    void onlyNewChangesReplayed() throws IOException {
+      assertThat(WhatToChangeLog.recover(snapshot, logDir).getReplayed()).isEqualTo(1);
+    }
+  }
+
+  @Nested
+  class Recover {
+
+    @BeforeEach
+    void writeLog() throws IOException {
+      WhatToSnapshot.write(snapshot, new int[]{7, 8}, new int[]{54, 3});
+      try (WhatToChangeLog log = new WhatToChangeLog(logDir, Durability.PER_WRITE)) {
+        log.append(8, 120);
+        log.append(9, 5);
+        log.append(7, 0);
+      }
+    }
+
+    @Test
+    void nothingDiscarded() throws IOException {
+      assertThat(WhatToChangeLog.recover(snapshot, logDir).getDiscardedBytes()).isZero();
+    }
+
+    @Test
+    void updatesExistingKey() throws IOException {
+      assertThat(WhatToChangeLog.recover(snapshot, logDir).getColumns().getWeight(1)).isEqualTo(HEAVY);
+    }
+
+    @Test
+    void appendsNewKey() throws IOException {
+      assertThat(WhatToChangeLog.recover(snapshot, logDir).getColumns().getKey(2)).isEqualTo(9);
+    }
+
+    @Test
+    void lastWriteWins() throws IOException {
+      assertThat(WhatToChangeLog.recover(snapshot, logDir).getColumns().getValue(0)).isZero();
+    }
+
+    @Test
+    void withoutSnapshot() throws IOException {
+      Files.delete(snapshot);
+
+      assertThat(WhatToChangeLog.recover(snapshot, logDir).getColumns().size()).isEqualTo(3);
+    }
+
+    @Test
+    void withoutLog() throws IOException {
+      assertThat(WhatToChangeLog.recover(snapshot, tempDir.resolve("missing")).getColumns().size()).isEqualTo(2);
+    }
+  }
+
+  @Nested
+  class Crash {
+
+    private Path segment;
+
+    @BeforeEach
+    void writeLog() throws IOException {
+      try (WhatToChangeLog log = new WhatToChangeLog(logDir, Durability.PER_WRITE)) {
+        log.append(7, 54);
+        log.append(8, 3);
+        log.append(9, 120);
+      }
+      segment = segments().get(0);
+    }
+
+    private void truncate(long length) throws IOException {
+      try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+        file.setLength(length);
+      }
+    }
+
+    @Test
+    void tornRecordDropped() throws IOException {
+      truncate(Files.size(segment) - 5);
+
+      assertThat(WhatToChangeLog.recover(snapshot, logDir).getReplayed()).isEqualTo(2);
+    }
+
+    @Test
+    void tornBytesReported() throws IOException {
+      truncate(Files.size(segment) - 5);
+
+      assertThat(WhatToChangeLog.recover(snapshot, logDir).getDiscardedBytes()).isEqualTo(WhatToChangeLog.RECORD_SIZE - 5);
+    }
+
+    @Test
+    void tornHeader() throws IOException {
+      truncate(3);
+
+      assertThat(WhatToChangeLog.recover(snapshot, logDir).getReplayed()).isZero();
+    }
+
+    @Test
+    void corruptRecordStopsReplay() throws IOException {
+      try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+        file.seek(WhatToChangeLog.HEADER_SIZE + WhatToChangeLog.RECORD_SIZE + 4);
+        file.writeInt(4711);
+      }
+
+      assertThat(WhatToChangeLog.recover(snapshot, logDir).getReplayed()).isEqualTo(1);
+    }
+
+    @Test
+    void laterSegmentsStillReplayed() throws IOException {
+      truncate(Files.size(segment) - 5);
+      try (WhatToChangeLog log = new WhatToChangeLog(logDir, Durability.PER_WRITE)) {
+        log.append(10, 1);
+      }
+
+      assertThat(WhatToChangeLog.recover(snapshot, logDir).getColumns().getKey(2)).isEqualTo(10);
+    }
+  }
+
+  @Nested
+  class Register {
+
+    private WhatToChangeLog log;
+    private UT02_WhatTo     record;
+
+    @BeforeEach
+    void registerRecord() throws IOException {
+      log = new WhatToChangeLog(logDir, Durability.PER_WRITE);
+      record = new UT02_WhatTo(7, 54);
+      log.register(record);
+    }
+
+    @AfterEach
+    void closeLog() throws IOException {
+      log.close();
+    }
+
+    @Test
+    void setValueLogged() throws IOException {
+      record.setValue(120);
+
+      assertThat(WhatToChangeLog.recover(snapshot, logDir).getColumns().getWeight(0)).isEqualTo(HEAVY);
+    }
+
+    @Test
+    void alreadyRegistered() {
+      assertThatThrownBy(() -> log.register(record)).isInstanceOf(IllegalStateException.class).hasMessage("Already logged: 7");
+    }
+
+    @Test
+    void unregistered() throws IOException {
+      log.unregister(record);
+      record.setValue(120);
+
+      assertThat(log.getAppended()).isZero();
+    }
+
+    @Test
+    void concurrentSettersMatchLog() throws Exception {
+      runConcurrently(4, writer -> {
+        for (int i = 0; i < 200; i++) {
+          record.setValue(writer * 1000 + i);
+        }
+      });
+      log.flush();
+
+      assertThat(WhatToChangeLog.recover(snapshot, logDir).getColumns().getValue(0)).isEqualTo(record.getValue());
+    }
+
+    @Test
+    void closedLogFailsWrite() throws IOException {
+      log.close();
+
+      assertThatThrownBy(() -> record.setValue(120)).isInstanceOf(UncheckedIOException.class);
+    }
+  }
+}
@@ -0,0 +1,176 @@
+package de.mthix.junit5;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static de.mthix.junit5.UT02_WhatTo.WeightLevel.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class WhatToColumnsTest {
+
+  private WhatToColumns columns;
+
+  @BeforeEach
+  void initColumns() {
+    columns = new WhatToColumns(2, false, 2);
+    columns.append(7, 54);
+    columns.append(8, 3);
+    columns.append(new UT02_WhatTo(9, 120));
+    columns.append(10, 11);
+    columns.append(11, 101);
+  }
+
+  @Test
+  void invalidCapacity() {
+    assertThatThrownBy(() -> new WhatToColumns(-1)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void offHeapCapacityTooLarge() {
+    assertThatThrownBy(() -> WhatToColumns.offHeap(WhatToColumns.MAX_OFF_HEAP_CAPACITY + 1)).isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Wrong capacity: " + (WhatToColumns.MAX_OFF_HEAP_CAPACITY + 1));
+  }
+
+  @Nested
+  class GrownCapacity {
+
+    @Test
+    void byHalf() {
+      assertThat(WhatToColumns.grownCapacity(100, WhatToColumns.MAX_HEAP_CAPACITY)).isEqualTo(150);
+    }
+
+    @Test
+    void minimum() {
+      assertThat(WhatToColumns.grownCapacity(0, WhatToColumns.MAX_HEAP_CAPACITY)).isEqualTo(16);
+    }
+
+    @Test
+    void cappedWithoutOverflow() {
+      assertThat(WhatToColumns.grownCapacity(1_500_000_000, WhatToColumns.MAX_HEAP_CAPACITY)).isEqualTo(WhatToColumns.MAX_HEAP_CAPACITY);
+    }
+
+    @Test
+    void cappedOffHeap() {
+      assertThat(WhatToColumns.grownCapacity(WhatToColumns.MAX_OFF_HEAP_CAPACITY - 1, WhatToColumns.MAX_OFF_HEAP_CAPACITY))
+          .isEqualTo(WhatToColumns.MAX_OFF_HEAP_CAPACITY);
+    }
+
+    @Test
+    void exhausted() {
+      assertThatThrownBy(() -> WhatToColumns.grownCapacity(WhatToColumns.MAX_HEAP_CAPACITY, WhatToColumns.MAX_HEAP_CAPACITY))
+          .isInstanceOf(IllegalStateException.class).hasMessage("Capacity exhausted: " + WhatToColumns.MAX_HEAP_CAPACITY);
+    }
+  }
+
+  @Nested
+  class Append {
+
+    @Test
+    void returnsIndex() {
+      assertThat(columns.append(12, 0)).isEqualTo(5);
+    }
+
+    @Test
+    void grown() {
+      assertThat(columns.size()).isEqualTo(5);
+    }
+  }
+
+  @Nested
+  class GetKey {
+
+    @Test
+    void afterGrowth() {
+      assertThat(columns.getKey(4)).isEqualTo(11);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 5})
+    void outOfBounds(int index) {
+      assertThatThrownBy(() -> columns.getKey(index)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+  }
+
+  @Nested
+  class SetValue {
+
+    @BeforeEach
+    void setValue() {
+      columns.setValue(1, 500);
+    }
+
+    @Test
+    void value() {
+      assertThat(columns.getValue(1)).isEqualTo(500);
+    }
+
+    @Test
+    void weight() {
+      assertThat(columns.getWeight(1)).isEqualTo(HEAVY);
+    }
+  }
+
+  @Test
+  void get() {
+    assertThat(columns.get(2).getValue()).isEqualTo(120);
+  }
+
+  @Test
+  void indexByKey() {
+    assertThat(columns.indexByKey().get(10, -1)).isEqualTo(3);
+  }
+
+  @Nested
+  class IndicesOf {
+
+    @Test
+    void heavy() {
+      assertThat(columns.indicesOf(HEAVY)).containsExactly(2, 4);
+    }
+
+    @Test
+    void light() {
+      assertThat(columns.indicesOf(LIGHT)).containsExactly(1);
+    }
+
+    @Test
+    void empty() {
+      assertThat(new WhatToColumns(0).indicesOf(MEDIUM)).isEmpty();
+    }
+  }
+
+  @Test
+  void countByWeight() {
+    assertThat(columns.countByWeight().get(MEDIUM)).isEqualTo(2);
+  }
+
+  @Nested
+  class OffHeap {
+
+    @BeforeEach
+    void initOffHeapColumns() {
+      columns = WhatToColumns.offHeap(1);
+      columns.append(3, 99);
+      columns.append(4, 200);
+    }
+
+    @Test
+    void offHeap() {
+      assertThat(columns.isOffHeap()).isTrue();
+    }
+
+    @Test
+    void value() {
+      assertThat(columns.getValue(1)).isEqualTo(200);
+    }
+
+    @Test
+    void indicesOf() {
+      assertThat(columns.indicesOf(MEDIUM)).containsExactly(0);
+    }
+  }
+}
@@ -0,0 +1,167 @@
+package de.mthix.junit5;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static de.mthix.junit5.UT02_WhatTo.WeightLevel.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class WhatToSnapshotTest {
+
+  @TempDir
+  Path tempDir;
+
+  private Path file;
+
+  @BeforeEach
+  void writeSnapshot() throws IOException {
+    file = tempDir.resolve("what-to.snapshot");
+    WhatToSnapshot.write(file, new int[]{7, 8, 9}, new int[]{54, 3, 120});
+  }
+
+  @Nested
+  class Open {
+
+    private WhatToSnapshot snapshot;
+
+    @BeforeEach
+    void openSnapshot() throws IOException {
+      snapshot = WhatToSnapshot.open(file);
+    }
+
+    @Test
+    void size() {
+      assertThat(snapshot.size()).isEqualTo(3);
+    }
+
+    @Test
+    void key() {
+      assertThat(snapshot.getKey(1)).isEqualTo(8);
+    }
+
+    @Test
+    void value() {
+      assertThat(snapshot.getValue(2)).isEqualTo(120);
+    }
+
+    @Test
+    void weight() {
+      assertThat(snapshot.getWeight(0)).isEqualTo(MEDIUM);
+    }
+
+    @Test
+    void checksumValid() {
+      assertThat(snapshot.isChecksumValid()).isTrue();
+    }
+
+    @Test
+    void outOfBounds() {
+      assertThatThrownBy(() -> snapshot.getKey(3)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+  }
+
+  @Nested
+  class Corrupted {
+
+    @Test
+    void flippedRecordByte() throws IOException {
+      overwriteByte(WhatToSnapshot.HEADER_SIZE + 3, 0x7F);
+
+      assertThat(WhatToSnapshot.open(file).isChecksumValid()).isFalse();
+    }
+
+    @Test
+    void wrongMagic() throws IOException {
+      overwriteByte(0, 0);
+
+      assertThatThrownBy(() -> WhatToSnapshot.open(file)).isInstanceOf(IOException.class).hasMessageContaining("magic");
+    }
+
+    @Test
+    void wrongVersion() throws IOException {
+      overwriteByte(5, 9);
+
+      assertThatThrownBy(() -> WhatToSnapshot.open(file)).isInstanceOf(IOException.class).hasMessageContaining("version");
+    }
+
+    @Test
+    void truncatedRecords() throws IOException {
+      try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+        raf.setLength(raf.length() - 1);
+      }
+
+      assertThatThrownBy(() -> WhatToSnapshot.open(file)).isInstanceOf(IOException.class).hasMessageContaining("record count");
+    }
+
+    @Test
+    void truncatedHeader() throws IOException {
+      Files.write(file, new byte[3]);
+
+      assertThatThrownBy(() -> WhatToSnapshot.open(file)).isInstanceOf(IOException.class).hasMessageContaining("header");
+    }
+
+    private void overwriteByte(long position, int value) throws IOException {
+      try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+        raf.seek(position);
+        raf.write(value);
+      }
+    }
+  }
+
+  @Nested
+  class RoundTrip {
+
+    private final int records = 100_000;
+
+    private WhatToColumns columns;
+
+    @BeforeEach
+    void writeColumns() throws IOException {
+      Random random = new Random(42);
+      columns = new WhatToColumns(records);
+      for (int i = 0; i < records; i++) {
+        columns.append(random.nextInt(), random.nextInt(200));
+      }
+
+      WhatToSnapshot.write(file, columns);
+    }
+
+    @Test
+    void values() throws IOException {
+      WhatToColumns loaded = WhatToSnapshot.open(file).toColumns();
+
+      assertThat(loaded.countByWeight().toMap()).isEqualTo(columns.countByWeight().toMap());
+    }
+
+    @Test
+    void lastKey() throws IOException {
+      assertThat(WhatToSnapshot.open(file).getKey(records - 1)).isEqualTo(columns.getKey(records - 1));
+    }
+
+    @Test
+    void checksumValid() throws IOException {
+      assertThat(WhatToSnapshot.open(file).isChecksumValid()).isTrue();
+    }
+
+    @Test
+    void noTempFileLeft() throws IOException {
+      assertThat(Files.list(tempDir)).containsExactly(file);
+    }
+  }
+
+  @Test
+  void empty() throws IOException {
+    WhatToSnapshot.write(file, new WhatToColumns(0));
+
+    assertThat(WhatToSnapshot.open(file).size()).isZero();
+  }
+}